@@ -0,0 +1,113 @@
+package com.yassine.expensetracker.bench;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH json result files (-rf json) and fails when a benchmark regressed.
+ * <p>
+ * Usage: {@code JmhCompare <baseline.json> <current.json> [thresholdPercent]}
+ * <p>
+ * A benchmark regresses when its score got worse by more than the threshold (default 10%)
+ * AND the change is larger than the combined error margins, so noisy runs don't fail the build.
+ * "Worse" is lower for throughput modes, higher for time based modes (avgt, sample, ss).
+ * Benchmarks present on one side only are reported but never fail the comparison.
+ */
+public final class JmhCompare {
+
+    private JmhCompare() {}
+
+    record Score(String mode, double score, double error, String unit) {
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhCompare <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            String name = entry.getKey();
+            Score cur = entry.getValue();
+            Score base = baseline.get(name);
+            if (base == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  (new)%n", name, "-", cur.score(), "-");
+                continue;
+            }
+
+            double change = (cur.score() - base.score()) / base.score() * 100.0;
+            double worsening = cur.higherIsBetter() ? -change : change;
+            boolean beyondNoise = Math.abs(cur.score() - base.score()) > errorOf(base) + errorOf(cur);
+            boolean regressed = worsening > threshold && beyondNoise;
+            if (regressed) regressions++;
+
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n",
+                    name, base.score(), cur.score(), change, regressed ? "  REGRESSION" : "");
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-90s %14.3f %14s %9s  (missing)%n", name, baseline.get(name).score(), "-", "-");
+            }
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+        System.out.printf("No regression above %.1f%%%n", threshold);
+    }
+
+    static Map<String, Score> read(File file) {
+        if (!file.isFile()) {
+            throw new IllegalArgumentException("JMH result not found: " + file);
+        }
+        JsonNode root = JsonMapper.builder().build().readTree(file);
+
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : root) {
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key(run), new Score(
+                    run.path("mode").asString(),
+                    metric.path("score").asDouble(),
+                    metric.path("scoreError").asDouble(Double.NaN),
+                    metric.path("scoreUnit").asString()
+            ));
+        }
+        return scores;
+    }
+
+    /** benchmark + mode + sorted @Param values, e.g. "a.b.Bench.serialize thrpt {size=20}". */
+    static String key(JsonNode run) {
+        StringBuilder sb = new StringBuilder(run.path("benchmark").asString())
+                .append(' ')
+                .append(run.path("mode").asString());
+
+        JsonNode params = run.path("params");
+        if (params.isObject() && !params.isEmpty()) {
+            Map<String, String> sorted = new TreeMap<>();
+            params.properties().forEach(p -> sorted.put(p.getKey(), p.getValue().asString()));
+            sb.append(' ').append(sorted);
+        }
+        return sb.toString();
+    }
+
+    // JMH renvoie NaN quand il n'y a qu'une seule itération de mesure
+    private static double errorOf(Score s) {
+        return Double.isNaN(s.error()) ? 0.0 : s.error();
+    }
+}
@@ -0,0 +1,37 @@
+package com.yassine.expensetracker.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range resolution done by every dashboard endpoint: defaults (reads the clock) vs explicit bounds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateRangeBenchmark {
+
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        from = LocalDate.of(2025, 1, 15);
+        to = LocalDate.of(2025, 12, 20);
+    }
+
+    @Benchmark
+    public DateRange defaultLast12Months() {
+        return DateRange.defaultLast12Months(null, null);
+    }
+
+    @Benchmark
+    public DateRange explicitBounds() {
+        return DateRange.defaultLast12Months(from, to);
+    }
+}
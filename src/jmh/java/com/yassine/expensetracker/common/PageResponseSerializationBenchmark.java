@@ -0,0 +1,59 @@
+package com.yassine.expensetracker.common;
+
+import com.yassine.expensetracker.expense.ExpenseDtos.ExpenseResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a search page, with the same Jackson 3 mapper family Spring MVC uses.
+ * Page sizes cover the default (20) and the max cursor page (100).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectWriter writer;
+    private PageResponse<ExpenseResponse> page;
+
+    @Setup
+    public void setUp() {
+        writer = JsonMapper.builder().build().writer();
+
+        UUID categoryId = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2025, 3, 31);
+        List<ExpenseResponse> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new ExpenseResponse(
+                    UUID.randomUUID(),
+                    BigDecimal.valueOf(1000 + i * 37L, 2),
+                    "EUR",
+                    date.minusDays(i),
+                    "Merchant " + (i % 7),
+                    i % 3 == 0 ? null : "Note " + i,
+                    categoryId,
+                    "Groceries"
+            ));
+        }
+        page = new PageResponse<>(items, 0, size, 1_000, 1_000 / size);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,132 @@
+package com.yassine.expensetracker.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput into a table keyed by a uuid primary key, random (v4, UUID.randomUUID) versus
+ * time-ordered (v7, TimeOrderedUuidGenerator) ids. Each trial works on its own scratch table, pre-filled
+ * with {@code prefill} rows so the index is larger than a few pages, and prints in tear down the
+ * primary key index size and the WAL written per inserted row. Needs a reachable database (same
+ * defaults as application.properties), no migration required:
+ * <pre>
+ * ./mvnw -Pbenchmarks test-compile exec:exec -Djmh.include=UuidPrimaryKeyBenchmark \
+ *        -Djmh.args="-p jdbcUrl=jdbc:postgresql://localhost:5433/expense_tracker"
+ * </pre>
+ * Scores are rows per second. The scratch table is dropped in tear down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UuidPrimaryKeyBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"v4", "v7"})
+    private String version;
+
+    @Param("500000")
+    private int prefill;
+
+    @Param("jdbc:postgresql://localhost:5433/expense_tracker")
+    private String jdbcUrl;
+
+    @Param("postgres")
+    private String dbUser;
+
+    @Param("postgres")
+    private String dbPassword;
+
+    private Connection connection;
+    private String table;
+    private String insertSql;
+    private String startLsn;
+    private long inserted;
+    private final UUID userId = UUID.randomUUID();
+    private final BigDecimal amount = new BigDecimal("12.50");
+
+    @Setup(Level.Trial)
+    public void createTable() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword);
+        table = "uuid_pk_bench_" + version;
+        insertSql = "insert into " + table + " (id, user_id, amount) values (?, ?, ?)";
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("drop table if exists " + table);
+            // même forme que la tête d'expenses : la clé, une autre colonne uuid, un montant
+            st.execute("create table " + table + " (id uuid primary key, user_id uuid not null, "
+                    + "amount numeric(12,2) not null, created_at timestamptz not null default now())");
+        }
+        connection.setAutoCommit(false);
+        for (int i = 0; i < prefill; i += BATCH) {
+            insertBatch();
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("checkpoint");
+        }
+        connection.commit();
+        startLsn = queryString("select pg_current_wal_lsn()::text");
+        inserted = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() throws SQLException {
+        long walBytes = queryLong("select pg_wal_lsn_diff(pg_current_wal_lsn(), '" + startLsn + "'::pg_lsn)::bigint");
+        long indexBytes = queryLong("select pg_relation_size('" + table + "_pkey')");
+        long rows = queryLong("select count(*) from " + table);
+        System.out.printf("%n%s: %,d rows, primary key %,d kB (%.1f bytes/row), WAL %.1f bytes per inserted row%n",
+                version, rows, indexBytes / 1024, (double) indexBytes / rows, (double) walBytes / Math.max(inserted, 1));
+
+        connection.setAutoCommit(true);
+        try (Statement st = connection.createStatement()) {
+            st.execute("drop table " + table);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insert() throws SQLException {
+        insertBatch();
+    }
+
+    private void insertBatch() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
+            for (int i = 0; i < BATCH; i++) {
+                ps.setObject(1, "v7".equals(version) ? TimeOrderedUuidGenerator.next() : UUID.randomUUID());
+                ps.setObject(2, userId);
+                ps.setBigDecimal(3, amount);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+        inserted += BATCH;
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.yassine.expensetracker.expense;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expense creation throughput, one transaction per expense with the statements ExpenseService.create
+ * sends: the former version also selected the user just to set the expenses.user_id foreign key,
+ * the current one only checks the category together with its owner and attaches the user as a
+ * reference. Needs a migrated database (same defaults as application.properties):
+ * <pre>
+ * ./mvnw -Pbenchmarks test-compile exec:exec -Djmh.include=ExpenseCreateBenchmark \
+ *        -Djmh.args="-p jdbcUrl=jdbc:postgresql://localhost:5433/expense_tracker"
+ * </pre>
+ * The seeded user (and its rows, by cascade) is deleted in tear down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseCreateBenchmark {
+
+    // same shapes as the SQL Hibernate generates for CategoryRepository.findByIdAndUserId / findById
+    private static final String SELECT_CATEGORY = """
+        select c.id, c.budget_limit, c.color, c.created_at, c.icon, c.name, c.user_id
+        from categories c where c.id = ? and c.user_id = ?
+        """;
+    private static final String SELECT_USER = """
+        select u.id, u.created_at, u.email, u.password_hash from users u where u.id = ?
+        """;
+    private static final String INSERT_EXPENSE = """
+        insert into expenses (amount, category_id, created_at, currency, expense_date, merchant, note, updated_at, user_id, id)
+        values (?, ?, now(), 'EUR', ?, 'Bench', null, now(), ?, ?)
+        """;
+    private static final String ADD_ROLLUP = """
+        insert into spend_rollup (user_id, month, category_id, total, count)
+        values (?, ?, ?, ?, 1)
+        on conflict (user_id, month, category_id) do update
+          set total = spend_rollup.total + excluded.total,
+              count = spend_rollup.count + excluded.count
+        """;
+
+    @Param("jdbc:postgresql://localhost:5433/expense_tracker")
+    private String jdbcUrl;
+
+    @Param("postgres")
+    private String dbUser;
+
+    @Param("postgres")
+    private String dbPassword;
+
+    private Connection connection;
+    private UUID userId;
+    private UUID categoryId;
+    private LocalDate date;
+    private final BigDecimal amount = new BigDecimal("12.50");
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword);
+        userId = UUID.randomUUID();
+        categoryId = UUID.randomUUID();
+        // mois courant : sa partition existe toujours (ExpensePartitionMaintenance)
+        date = LocalDate.now();
+
+        try (PreparedStatement user = connection.prepareStatement(
+                "insert into users (id, email, password_hash) values (?, ?, 'x')")) {
+            user.setObject(1, userId);
+            user.setString(2, "bench-" + userId + "@test.com");
+            user.executeUpdate();
+        }
+        try (PreparedStatement category = connection.prepareStatement(
+                "insert into categories (id, user_id, name, color, icon) values (?, ?, 'Bench', '#000000', 'x')")) {
+            category.setObject(1, categoryId);
+            category.setObject(2, userId);
+            category.executeUpdate();
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws SQLException {
+        connection.setAutoCommit(true);
+        try (PreparedStatement delete = connection.prepareStatement("delete from users where id = ?")) {
+            delete.setObject(1, userId);
+            delete.executeUpdate();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public UUID loadUserThenInsert() throws SQLException {
+        select(SELECT_CATEGORY, categoryId, userId);
+        select(SELECT_USER, userId);
+        return insert();
+    }
+
+    @Benchmark
+    public UUID referenceInsert() throws SQLException {
+        select(SELECT_CATEGORY, categoryId, userId);
+        return insert();
+    }
+
+    private UUID insert() throws SQLException {
+        UUID id = UUID.randomUUID();
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_EXPENSE)) {
+            ps.setBigDecimal(1, amount);
+            ps.setObject(2, categoryId);
+            ps.setObject(3, date);
+            ps.setObject(4, userId);
+            ps.setObject(5, id);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = connection.prepareStatement(ADD_ROLLUP)) {
+            ps.setObject(1, userId);
+            ps.setObject(2, date.withDayOfMonth(1));
+            ps.setObject(3, categoryId);
+            ps.setBigDecimal(4, amount);
+            ps.executeUpdate();
+        }
+        connection.commit();
+        return id;
+    }
+
+    private void select(String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new IllegalStateException("seeded row not found");
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.yassine.expensetracker.expense;
+
+import com.yassine.expensetracker.category.Category;
+import com.yassine.expensetracker.expense.ExpenseDtos.ExpenseResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> DTO mapping (ExpenseMapper), applied to each expense returned by the write paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseMappingBenchmark {
+
+    private Expense expense;
+
+    @Setup
+    public void setUp() {
+        Category category = new Category();
+        category.setId(UUID.randomUUID());
+        category.setName("Groceries");
+
+        expense = new Expense();
+        expense.setId(UUID.randomUUID());
+        expense.setCategory(category);
+        expense.setAmount(new BigDecimal("42.90"));
+        expense.setExpenseDate(LocalDate.of(2025, 3, 14));
+        expense.setMerchant("Carrefour");
+        expense.setNote("Weekly groceries");
+    }
+
+    @Benchmark
+    public ExpenseResponse toResponse() {
+        return ExpenseMapper.toResponse(expense);
+    }
+}
@@ -0,0 +1,163 @@
+package com.yassine.expensetracker.expense;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Free-text search latency (first page of 20 + count, as GET /api/expenses does) for one user
+ * holding {@code rows} expenses: the former leading-wildcard LIKE scan vs the (user_id, search_vector)
+ * GIN index. Needs a migrated database (same defaults as application.properties):
+ * <pre>
+ * ./mvnw -Pbenchmarks test-compile exec:exec -Djmh.include=ExpenseSearchBenchmark \
+ *        -Djmh.args="-p jdbcUrl=jdbc:postgresql://localhost:5433/expense_tracker"
+ * </pre>
+ * The seeded user (and its rows, by cascade) is deleted in tear down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseSearchBenchmark {
+
+    private static final String LIKE_PAGE = """
+        select e.id, e.amount, e.expense_date, e.merchant, e.note from expenses e
+        where e.user_id = ? and e.expense_date between ? and ?
+          and (lower(coalesce(e.merchant, '')) like ? or lower(coalesce(e.note, '')) like ?)
+        order by e.expense_date desc
+        limit 20
+        """;
+    private static final String LIKE_COUNT = """
+        select count(*) from expenses e
+        where e.user_id = ? and e.expense_date between ? and ?
+          and (lower(coalesce(e.merchant, '')) like ? or lower(coalesce(e.note, '')) like ?)
+        """;
+    // same shape as ExpenseRepository.searchText
+    private static final String FTS_PAGE = """
+        with matches as materialized (
+          select e.* from expenses e
+          where e.user_id = ? and e.search_vector @@ to_tsquery('simple', ?)
+        )
+        select m.id, m.amount, m.expense_date, m.merchant, m.note from matches m
+        where m.expense_date between ? and ?
+        order by ts_rank(m.search_vector, to_tsquery('simple', ?)) desc, m.expense_date desc, m.id desc
+        limit 20
+        """;
+    private static final String FTS_COUNT = """
+        with matches as materialized (
+          select e.expense_date from expenses e
+          where e.user_id = ? and e.search_vector @@ to_tsquery('simple', ?)
+        )
+        select count(*) from matches m
+        where m.expense_date between ? and ?
+        """;
+
+    @Param("jdbc:postgresql://localhost:5433/expense_tracker")
+    private String jdbcUrl;
+
+    @Param("postgres")
+    private String dbUser;
+
+    @Param("postgres")
+    private String dbPassword;
+
+    @Param("100000")
+    private int rows;
+
+    /** "carrefour": ~1 row in 8 matches, "plombier": rare. */
+    @Param({"carrefour", "plombier"})
+    private String q;
+
+    private Connection connection;
+    private UUID userId;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword);
+        userId = UUID.randomUUID();
+        UUID categoryId = UUID.randomUUID();
+        to = LocalDate.of(2025, 12, 31);
+        from = to.minusYears(10);
+
+        try (PreparedStatement user = connection.prepareStatement(
+                "insert into users (id, email, password_hash) values (?, ?, 'x')")) {
+            user.setObject(1, userId);
+            user.setString(2, "bench-" + userId + "@test.com");
+            user.executeUpdate();
+        }
+        try (PreparedStatement category = connection.prepareStatement(
+                "insert into categories (id, user_id, name, color, icon) values (?, ?, 'Bench', '#000000', 'x')")) {
+            category.setObject(1, categoryId);
+            category.setObject(2, userId);
+            category.executeUpdate();
+        }
+        try (PreparedStatement expenses = connection.prepareStatement("""
+                insert into expenses (id, user_id, category_id, amount, expense_date, merchant, note)
+                select gen_random_uuid(), ?, ?,
+                       round((random() * 200 + 1)::numeric, 2),
+                       ?::date - (i % 3650),
+                       (array['Carrefour','Monoprix','Ikea','Amazon','SNCF','Fnac','Decathlon','Lidl'])[i % 8 + 1],
+                       case when i % 997 = 0 then 'facture plombier ' || i else 'achat courant ' || i end
+                from generate_series(1, ?) as i
+                """)) {
+            expenses.setObject(1, userId);
+            expenses.setObject(2, categoryId);
+            expenses.setObject(3, to);
+            expenses.setInt(4, rows);
+            expenses.executeUpdate();
+        }
+        // flushes the GIN pending list filled by the bulk insert, as autovacuum would
+        try (Statement st = connection.createStatement()) {
+            st.execute("vacuum analyze expenses");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement("delete from users where id = ?")) {
+            delete.setObject(1, userId);
+            delete.executeUpdate();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long likeScan() throws SQLException {
+        String pattern = "%" + q + "%";
+        return run(LIKE_PAGE, userId, from, to, pattern, pattern)
+                + run(LIKE_COUNT, userId, from, to, pattern, pattern);
+    }
+
+    @Benchmark
+    public long fullText() throws SQLException {
+        String tsQuery = ExpenseService.toPrefixTsQuery(q);
+        return run(FTS_PAGE, userId, tsQuery, from, to, tsQuery)
+                + run(FTS_COUNT, userId, tsQuery, from, to);
+    }
+
+    // after 5 executions pgjdbc switches to server-side prepared statements, as in the app
+    private long run(String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            long n = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) n++;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.yassine.expensetracker.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token issuing (login/refresh) and verification as done by JwtAuthFilter on every request.
+ * parseRebuildingParser is the previous implementation (parser built per call),
+ * parseUncached the prebuilt parser alone, parse the prebuilt parser + verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private JwtService cached;
+    private JwtService uncached;
+    private SecretKey key;
+    private String token;
+    private UUID userId;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtService(SECRET, 10_000);
+        uncached = new JwtService(SECRET, 0);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        userId = UUID.randomUUID();
+        token = cached.generateToken(userId, "bench@test.com", 900);
+    }
+
+    @Benchmark
+    public String generate() {
+        return cached.generateToken(userId, "bench@test.com", 900);
+    }
+
+    @Benchmark
+    public UUID parseRebuildingParser() {
+        String sub = Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+        return UUID.fromString(sub);
+    }
+
+    @Benchmark
+    public JwtService.AccessClaims parseUncached() {
+        return uncached.parse(token);
+    }
+
+    @Benchmark
+    public JwtService.AccessClaims parse() {
+        return cached.parse(token);
+    }
+}
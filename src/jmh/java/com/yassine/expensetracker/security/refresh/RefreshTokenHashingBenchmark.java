@@ -0,0 +1,44 @@
+package com.yassine.expensetracker.security.refresh;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh token hashing, done on every issue / rotate / revoke.
+ * sha256Hex includes the MessageDigest lookup, toHex only the hex encoding of a 32 bytes digest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshTokenHashingBenchmark {
+
+    private String rawToken;
+    private byte[] digest;
+
+    @Setup
+    public void setUp() {
+        SecureRandom random = new SecureRandom();
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        digest = new byte[32];
+        random.nextBytes(digest);
+    }
+
+    @Benchmark
+    public String sha256Hex() {
+        return RefreshTokenService.sha256Hex(rawToken);
+    }
+
+    @Benchmark
+    public String toHex() {
+        return RefreshTokenService.toHex(digest);
+    }
+}
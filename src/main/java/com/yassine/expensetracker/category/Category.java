@@ -1,13 +1,23 @@
 package com.yassine.expensetracker.category;
 
+import com.yassine.expensetracker.common.TimeOrderedUuidGenerator;
 import com.yassine.expensetracker.user.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * Cached in the second-level cache (region "category", see hibernate-cache.conf): writes through
+ * Hibernate keep it in sync, rows removed by the users -> categories "on delete cascade" are not
+ * evicted and simply expire.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Table(
         name = "categories",
         uniqueConstraints = @UniqueConstraint(name = "uq_category_user_name", columnNames = {"user_id", "name"})
@@ -38,7 +48,7 @@ public class Category {
 
     @PrePersist
     void prePersist() {
-        if (id == null) id = UUID.randomUUID();
+        if (id == null) id = TimeOrderedUuidGenerator.next();
     }
 
     public UUID getId() { return id; }
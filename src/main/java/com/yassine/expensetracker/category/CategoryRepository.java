@@ -1,13 +1,26 @@
 package com.yassine.expensetracker.category;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
+
+    /*
+     * Query cache: the result (ids) is cached, the entities come from the "category" region.
+     * Any write to categories through Hibernate invalidates these results.
+     */
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findAllByUserIdOrderByNameAsc(UUID userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByIdAndUserId(UUID id, UUID userId);
+
     boolean existsByUserIdAndNameIgnoreCase(UUID userId, String name);
 }
@@ -1,8 +1,9 @@
 package com.yassine.expensetracker.category;
 
 import com.yassine.expensetracker.category.CategoryDtos.*;
-import com.yassine.expensetracker.user.User;
+import com.yassine.expensetracker.common.SpendDataChangedEvent;
 import com.yassine.expensetracker.user.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,10 +15,14 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher events;
 
-    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository) {
+    public CategoryService(CategoryRepository categoryRepository,
+                           UserRepository userRepository,
+                           ApplicationEventPublisher events) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.events = events;
     }
 
     @Transactional(readOnly = true)
@@ -36,17 +41,16 @@ public class CategoryService {
             throw new IllegalArgumentException("Category name already exists");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
-
+        // id de confiance (JWT vérifié) : une référence suffit pour la clé étrangère, pas de select
         Category c = new Category();
-        c.setUser(user);
+        c.setUser(userRepository.getReferenceById(userId));
         c.setName(name);
         c.setColor(req.color().trim());
         c.setIcon(req.icon().trim());
         c.setBudgetLimit(req.budgetLimit());
 
         categoryRepository.save(c);
+        events.publishEvent(new SpendDataChangedEvent(userId));
         return toResponse(c);
     }
 
@@ -67,6 +71,7 @@ public class CategoryService {
         c.setColor(req.color().trim());
         c.setIcon(req.icon().trim());
         c.setBudgetLimit(req.budgetLimit());
+        events.publishEvent(new SpendDataChangedEvent(userId));
 
         return toResponse(c);
     }
@@ -78,6 +83,7 @@ public class CategoryService {
 
         // NOTE: plus tard, on gérera le cas "catégorie utilisée par des dépenses"
         categoryRepository.delete(c);
+        events.publishEvent(new SpendDataChangedEvent(userId));
     }
 
     private CategoryResponse toResponse(Category c) {
@@ -0,0 +1,102 @@
+package com.yassine.expensetracker.common;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quoted fields
+ * (with "" escapes and embedded line breaks), CRLF or LF line endings.
+ * Reads one record at a time so arbitrarily large files never sit in memory.
+ */
+public class CsvReader {
+
+    private static final int MAX_FIELD_LENGTH = 10_000;
+
+    private final Reader in;
+    private int recordNumber;
+    private int pushedBack = -2;
+
+    public CsvReader(Reader in) {
+        this.in = (in instanceof BufferedReader) ? in : new BufferedReader(in);
+    }
+
+    /** 1-based number of the last record returned by {@link #next()} (the header is record 1). */
+    public int recordNumber() {
+        return recordNumber;
+    }
+
+    /** Next record, or null at end of input. Blank lines are skipped. */
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean sawAny = false;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (quoted) throw new IllegalArgumentException("Unterminated quoted field at record " + (recordNumber + 1));
+                if (!sawAny) return null;
+                break;
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                        pushedBack = n;
+                    }
+                } else {
+                    append(field, (char) c);
+                }
+                continue;
+            }
+
+            if (c == '\r') {
+                int n = read();
+                if (n != '\n') pushedBack = n;
+                c = '\n';
+            }
+            if (c == '\n') {
+                if (!sawAny) continue; // ligne vide
+                break;
+            }
+
+            sawAny = true;
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                append(field, (char) c);
+            }
+        }
+
+        fields.add(field.toString());
+        recordNumber++;
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void append(StringBuilder field, char c) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Field too long at record " + (recordNumber + 1));
+        }
+        field.append(c);
+    }
+}
@@ -0,0 +1,14 @@
+package com.yassine.expensetracker.common;
+
+import java.util.List;
+
+/**
+ * Page returned by keyset (seek) pagination.
+ * nextCursor is null on the last page, totalItems is null unless the client asked for it.
+ */
+public record CursorPageResponse<T>(
+        List<T> items,
+        int size,
+        String nextCursor,
+        Long totalItems
+) {}
@@ -15,4 +15,18 @@ public record DateRange(LocalDate from, LocalDate to) {
         }
         return new DateRange(effectiveFrom, effectiveTo);
     }
+
+    /** First day of the first calendar month entirely inside the range. */
+    public LocalDate firstFullMonth() {
+        return from.getDayOfMonth() == 1 ? from : from.withDayOfMonth(1).plusMonths(1);
+    }
+
+    /**
+     * Exclusive upper bound of the calendar months entirely inside the range.
+     * Equal to (or before) {@link #firstFullMonth()} when no month is fully covered.
+     */
+    public LocalDate endOfFullMonths() {
+        LocalDate next = to.plusDays(1);
+        return next.getDayOfMonth() == 1 ? next : to.withDayOfMonth(1);
+    }
 }
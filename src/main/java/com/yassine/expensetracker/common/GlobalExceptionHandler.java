@@ -1,6 +1,10 @@
 package com.yassine.expensetracker.common;
 
+import com.yassine.expensetracker.security.password.BoundedPasswordEncoder;
+import com.yassine.expensetracker.security.refresh.RefreshTokenService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
@@ -15,4 +19,19 @@ public class GlobalExceptionHandler {
     public ApiError handleIllegalArgument(IllegalArgumentException ex) {
         return new ApiError(Instant.now(), 400, "Bad Request", ex.getMessage());
     }
+
+    // cookie inconnu, révoqué (déjà utilisé) ou expiré : le client doit se reconnecter
+    @ExceptionHandler(RefreshTokenService.InvalidRefreshTokenException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public ApiError handleInvalidRefreshToken(RefreshTokenService.InvalidRefreshTokenException ex) {
+        return new ApiError(Instant.now(), 401, "Unauthorized", ex.getMessage());
+    }
+
+    // pool de hachage plein (login / register en rafale) : refus immédiat plutôt qu'une file sans fin
+    @ExceptionHandler(BoundedPasswordEncoder.SaturatedException.class)
+    public ResponseEntity<ApiError> handlePasswordHashingSaturated(BoundedPasswordEncoder.SaturatedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiError(Instant.now(), 429, "Too Many Requests", ex.getMessage()));
+    }
 }
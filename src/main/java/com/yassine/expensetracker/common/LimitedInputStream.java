@@ -0,0 +1,48 @@
+package com.yassine.expensetracker.common;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Request body read as a stream with a hard size cap: reading past {@code maxBytes} throws
+ * IllegalArgumentException (400), whatever the Content-Length said (or chunked, with none).
+ */
+public class LimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long read;
+
+    public LimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) count(1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) count(n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    private void count(long n) {
+        read += n;
+        if (read > maxBytes) {
+            throw new IllegalArgumentException("Request body too large (max " + maxBytes + " bytes)");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.yassine.expensetracker.common;
+
+import java.util.UUID;
+
+/**
+ * Published by ExpenseService / CategoryService after a write that changes what
+ * the dashboard shows for this user.
+ */
+public record SpendDataChangedEvent(UUID userId) {}
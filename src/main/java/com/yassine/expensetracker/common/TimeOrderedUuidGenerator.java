@@ -0,0 +1,49 @@
+package com.yassine.expensetracker.common;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID version 7 (RFC 9562): 48-bit Unix timestamp in milliseconds, then a 12-bit counter, then
+ * 62 random bits. Ids generated one after the other sort in creation order, so inserts land on the
+ * right-most pages of the primary key B-tree instead of random ones (fewer page splits, less WAL,
+ * a hot and compact index).
+ * <p>
+ * Monotonic within the JVM: the counter orders ids of the same millisecond, and when it overflows
+ * (4096 ids in one ms) or the clock goes backwards, the timestamp field is advanced instead.
+ * <p>
+ * Entities assigning their id in @PrePersist call {@link #next()}; the ones using a generated id
+ * plug it in with {@code @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)}.
+ */
+public final class TimeOrderedUuidGenerator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // (timestamp ms << 12) | counter of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long state = LAST.updateAndGet(last -> Math.max(now, last + 1));
+
+        long timestamp = state >>> 12;
+        long counter = state & 0xFFF;
+        long msb = (timestamp << 16) | 0x7000L | counter;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /** Timestamp part of an id generated by {@link #next()}. */
+    public static long timestampMillis(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+}
@@ -0,0 +1,9 @@
+package com.yassine.expensetracker.common.dto;
+
+public record DashboardCacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        long size,
+        double hitRate
+) {}
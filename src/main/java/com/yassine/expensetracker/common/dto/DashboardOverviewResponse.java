@@ -0,0 +1,12 @@
+package com.yassine.expensetracker.common.dto;
+
+import java.util.List;
+
+/** Every dashboard breakdown, computed by one query (GET /api/dashboard/overview). */
+public record DashboardOverviewResponse(
+        SummaryDto summary,
+        List<TopCategoryDto> topCategories,
+        List<MonthlySpendDto> monthlySeries,
+        List<CategorySpendDto> categories,
+        List<MerchantSpendDto> merchants
+) {}
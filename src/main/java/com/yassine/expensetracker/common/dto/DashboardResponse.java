@@ -2,8 +2,21 @@ package com.yassine.expensetracker.common.dto;
 
 import java.util.List;
 
+/**
+ * {@code unavailable} lists the parts that timed out or failed in parallel mode with
+ * on-timeout=partial (their value is then null / empty); empty for a complete response.
+ */
 public record DashboardResponse(
         SummaryDto summary,
         List<TopCategoryDto> topCategories,
-        List<MonthlySpendDto> monthlySeries
-) {}
+        List<MonthlySpendDto> monthlySeries,
+        List<String> unavailable
+) {
+    public DashboardResponse(SummaryDto summary, List<TopCategoryDto> topCategories, List<MonthlySpendDto> monthlySeries) {
+        this(summary, topCategories, monthlySeries, List.of());
+    }
+
+    public boolean complete() {
+        return unavailable.isEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package com.yassine.expensetracker.config;
+
+import com.yassine.expensetracker.dashboard.DashboardCache;
+import com.yassine.expensetracker.expense.ExpensePartitionMaintenance;
+import com.yassine.expensetracker.mail.EmailOutboxPurge;
+import com.yassine.expensetracker.security.TokenPurge;
+import com.yassine.expensetracker.security.password.BoundedPasswordEncoder;
+import com.yassine.expensetracker.security.ratelimit.RateLimitFilter;
+import com.yassine.expensetracker.security.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the in-app counters (dashboard cache, rate limiters, hash pool...) as Micrometer
+ * meters, read on scrape. Repository timers (spring.data.repository.invocations), the
+ * Hikari pool (hikaricp.*) and Hibernate statistics (hibernate.*, second-level cache regions
+ * included) come from Boot's auto-configuration.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder dashboardCacheMetrics(DashboardCache dashboardCache) {
+        return registry -> {
+            FunctionCounter.builder("app.dashboard.cache.requests", dashboardCache, c -> c.stats().hits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("app.dashboard.cache.requests", dashboardCache, c -> c.stats().misses())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("app.dashboard.cache.evictions", dashboardCache, c -> c.stats().evictions())
+                    .register(registry);
+            Gauge.builder("app.dashboard.cache.size", dashboardCache, c -> c.stats().size())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder expensePartitionMetrics(ExpensePartitionMaintenance maintenance) {
+        return registry -> {
+            FunctionCounter.builder("app.expenses.partitions.created", maintenance, ExpensePartitionMaintenance::partitionsCreated)
+                    .register(registry);
+            Gauge.builder("app.expenses.partitions.default_rows", maintenance, ExpensePartitionMaintenance::defaultPartitionRows)
+                    .description("Rows in expenses_default after the last maintenance run")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder rateLimitMetrics(RateLimitFilter rateLimitFilter) {
+        return registry -> {
+            for (RateLimiter limiter : rateLimitFilter.limiters()) {
+                FunctionCounter.builder("app.rate_limit.requests", limiter, RateLimiter::allowed)
+                        .tags("rule", limiter.name(), "outcome", "allowed")
+                        .register(registry);
+                FunctionCounter.builder("app.rate_limit.requests", limiter, RateLimiter::rejected)
+                        .tags("rule", limiter.name(), "outcome", "rejected")
+                        .register(registry);
+                Gauge.builder("app.rate_limit.tracked_keys", limiter, RateLimiter::trackedKeys)
+                        .tag("rule", limiter.name())
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder passwordHashMetrics(BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            Gauge.builder("app.password.hash.active", passwordEncoder, BoundedPasswordEncoder::active)
+                    .description("Password hashes running")
+                    .register(registry);
+            Gauge.builder("app.password.hash.queued", passwordEncoder, BoundedPasswordEncoder::queued)
+                    .description("Password hashes waiting for a thread")
+                    .register(registry);
+        };
+    }
+
+    // beans conditionnels (app.tokens.purge.enabled, app.mail.outbox.purge.enabled, spring.threads.virtual.enabled)
+    @Bean
+    MeterBinder optionalMetrics(ObjectProvider<TokenPurge> tokenPurge,
+                                ObjectProvider<EmailOutboxPurge> outboxPurge,
+                                ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor) {
+        return registry -> {
+            tokenPurge.ifAvailable(purge -> {
+                FunctionCounter.builder("app.tokens.purged", purge, TokenPurge::refreshTokensPurged)
+                        .tag("type", "refresh")
+                        .register(registry);
+                FunctionCounter.builder("app.tokens.purged", purge, TokenPurge::resetTokensPurged)
+                        .tag("type", "reset")
+                        .register(registry);
+            });
+            outboxPurge.ifAvailable(purge ->
+                    FunctionCounter.builder("app.mail.outbox.purged", purge, EmailOutboxPurge::purged)
+                            .register(registry));
+            pinningMonitor.ifAvailable(monitor ->
+                    FunctionCounter.builder("app.virtual_threads.pinned", monitor,
+                                    VirtualThreadPinningMonitor::totalPinnedEvents)
+                            .description("Virtual thread pinned events over the threshold")
+                            .register(registry));
+        };
+    }
+}
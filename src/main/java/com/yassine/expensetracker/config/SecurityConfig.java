@@ -1,30 +1,38 @@
 package com.yassine.expensetracker.config;
 
 import com.yassine.expensetracker.security.jwt.JwtAuthFilter;
+import com.yassine.expensetracker.security.ratelimit.RateLimitFilter;
 import com.yassine.expensetracker.user.UserRepository;
 import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.security.autoconfigure.actuate.web.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Configuration
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -32,11 +40,6 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public UserDetailsService userDetailsService(UserRepository userRepository) {
         return username -> userRepository.findByEmail(username.toLowerCase())
@@ -48,8 +51,35 @@ public class SecurityConfig {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    /**
+     * Called by DaoAuthenticationProvider after a successful login when the stored hash is not in
+     * the configured algorithm / cost (PasswordEncoderConfig): saves the hash of the password just
+     * checked. AuthService.login authenticates outside any transaction, so the save runs in its own.
+     */
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService(UserRepository userRepository,
+                                                                 PlatformTransactionManager transactionManager) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        return (user, newPasswordHash) -> {
+            tx.executeWithoutResult(status ->
+                    userRepository.findByEmail(user.getUsername()).ifPresent(u -> {
+                        u.setPasswordHash(newPasswordHash);
+                        userRepository.save(u);
+                    }));
+            return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                    .password(newPasswordHash)
+                    .build();
+        };
+    }
+
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http, Environment environment) throws Exception {
+        // scrape Prometheus sans token seulement si /actuator est sur son propre port
+        // (management.server.port, interne) : EndpointRequest ne correspond alors qu'aux requêtes
+        // reçues sur ce port. Sur le port public, il demande un token comme /actuator/metrics.
+        RequestMatcher anonymousEndpoints = ManagementPortType.get(environment) == ManagementPortType.DIFFERENT
+                ? EndpointRequest.to("health", "prometheus")
+                : EndpointRequest.to("health");
         return http
                 .csrf(csrf -> csrf.disable())
                 .cors(Customizer.withDefaults())
@@ -66,11 +96,14 @@ public class SecurityConfig {
                         .requestMatchers("/error").permitAll()
 
                         // public auth routes
+                        .requestMatchers(JwtAuthFilter.AUTHENTICATED_AUTH_PATHS.toArray(String[]::new)).authenticated()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/health").permitAll()
+                        .requestMatchers(anonymousEndpoints).permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, JwtAuthFilter.class)
                 .build();
     }
 }
@@ -0,0 +1,131 @@
+package com.yassine.expensetracker.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads pinned to their carrier (blocking inside synchronized or native code),
+ * which silently caps concurrency at the number of carriers (= CPU cores).
+ * <p>
+ * Listens to the JFR jdk.VirtualThreadPinned event in-process: each pinning site (first
+ * frame outside the JDK) is logged at WARN the first time, then only counted.
+ * Active with spring.threads.virtual.enabled=true. For full stacks on stdout,
+ * run with -Djdk.tracePinnedThreads=full instead.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH_LOGGED = 8;
+
+    public record PinnedSite(String site, long count, Duration totalPinned, Duration maxPinned) {}
+
+    private final Duration threshold;
+    private final Map<String, SiteStats> sites = new ConcurrentHashMap<>();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.virtual-threads.pinned-threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream rs = new RecordingStream();
+        rs.enable(EVENT).withThreshold(threshold).withStackTrace();
+        rs.onEvent(EVENT, this::record);
+        rs.startAsync();
+        stream = rs;
+        log.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream rs = stream;
+        stream = null;
+        if (rs != null) rs.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    /** Pinning sites seen since startup, most frequent first. */
+    public List<PinnedSite> snapshot() {
+        return sites.entrySet().stream()
+                .map(e -> e.getValue().toSite(e.getKey()))
+                .sorted(Comparator.comparingLong(PinnedSite::count).reversed())
+                .toList();
+    }
+
+    public long totalPinnedEvents() {
+        return sites.values().stream().mapToLong(s -> s.count.sum()).sum();
+    }
+
+    void record(RecordedEvent event) {
+        RecordedStackTrace stack = event.getStackTrace();
+        String site = site(stack);
+        Duration duration = event.getDuration();
+
+        SiteStats stats = sites.computeIfAbsent(site, k -> new SiteStats());
+        stats.count.increment();
+        stats.totalNanos.add(duration.toNanos());
+        stats.maxNanos.accumulateAndGet(duration.toNanos(), Math::max);
+
+        if (stats.count.sum() == 1) {
+            log.warn("Virtual thread pinned for {} ms at {}{}", duration.toMillis(), site, frames(stack));
+        } else if (log.isDebugEnabled()) {
+            log.debug("Virtual thread pinned for {} ms at {}", duration.toMillis(), site);
+        }
+    }
+
+    // premier frame hors JDK = le code (app ou lib) qui bloque sous synchronized
+    private static String site(RecordedStackTrace stack) {
+        if (stack == null) return "unknown";
+        for (RecordedFrame f : stack.getFrames()) {
+            String type = f.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + f.getMethod().getName() + ":" + f.getLineNumber();
+            }
+        }
+        return "jdk";
+    }
+
+    private static String frames(RecordedStackTrace stack) {
+        if (stack == null) return "";
+        StringBuilder sb = new StringBuilder();
+        stack.getFrames().stream().limit(STACK_DEPTH_LOGGED).forEach(f -> sb
+                .append(System.lineSeparator()).append("\tat ")
+                .append(f.getMethod().getType().getName()).append('.')
+                .append(f.getMethod().getName()).append(':').append(f.getLineNumber()));
+        return sb.toString();
+    }
+
+    private static final class SiteStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        PinnedSite toSite(String site) {
+            return new PinnedSite(site, count.sum(), Duration.ofNanos(totalNanos.sum()), Duration.ofNanos(maxNanos.get()));
+        }
+    }
+}
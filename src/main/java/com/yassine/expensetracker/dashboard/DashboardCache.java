@@ -0,0 +1,126 @@
+package com.yassine.expensetracker.dashboard;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.yassine.expensetracker.common.DateRange;
+import com.yassine.expensetracker.common.SpendDataChangedEvent;
+import com.yassine.expensetracker.common.dto.DashboardCacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of dashboard results, sitting in front of DashboardService
+ * so a hit costs neither a transaction nor a connection.
+ * <p>
+ * Keys carry the user's generation: once an expense/category write of that user commits, the
+ * generation moves on and the old entries are no longer reachable (they age out by size / TTL),
+ * so invalidating is O(1) whatever the cache size. A result computed concurrently with a write is
+ * stored under the old generation, hence never served after the commit.
+ * <p>
+ * Values are futures: the first caller for a key loads on its own thread, outside Caffeine's
+ * compute (which would block the hash bin, and other keys with it, for the whole query);
+ * concurrent callers for the same key wait for that result.
+ */
+@Component
+public class DashboardCache {
+
+    public enum View { DASHBOARD, CATEGORIES, MERCHANTS, OVERVIEW }
+
+    /** top / limit : paramètres de taille de la vue, 0 quand elle n'en a pas. */
+    record Key(UUID userId, long generation, View view, DateRange range, int top, int limit) {}
+
+    private final AsyncCache<Key, Object> cache;
+    // générations tirées d'un compteur global : une génération évincée puis recréée est toujours neuve
+    private final Cache<UUID, Long> generations;
+    private final AtomicLong nextGeneration = new AtomicLong();
+
+    public DashboardCache(
+            @Value("${app.dashboard.cache.max-size:10000}") long maxSize,
+            @Value("${app.dashboard.cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public <T> T get(UUID userId, View view, DateRange range, int top, int limit, Supplier<T> loader) {
+        return get(userId, view, range, top, limit, loader, v -> true);
+    }
+
+    /** Same as above, but a value rejected by {@code cacheable} (e.g. a partial result) is returned without being stored. */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID userId, View view, DateRange range, int top, int limit,
+                     Supplier<T> loader, Predicate<? super T> cacheable) {
+        Key key = new Key(userId, generation(userId), view, range, top, limit);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> future = cache.get(key, (k, executor) -> mine);
+        if (future != mine) {
+            return (T) await(future);
+        }
+
+        T loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException | Error ex) {
+            cache.asMap().remove(key, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+        // retiré avant d'être complété : un appel suivant recharge, ceux en attente reçoivent ce résultat
+        if (loaded == null || !cacheable.test(loaded)) {
+            cache.asMap().remove(key, mine);
+        }
+        mine.complete(loaded);
+        return loaded;
+    }
+
+    public void invalidateUser(UUID userId) {
+        generations.put(userId, nextGeneration.incrementAndGet());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpendDataChanged(SpendDataChangedEvent event) {
+        invalidateUser(event.userId());
+    }
+
+    private long generation(UUID userId) {
+        return generations.get(userId, k -> nextGeneration.incrementAndGet());
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            if (ex.getCause() instanceof Error err) throw err;
+            throw ex;
+        }
+    }
+
+    public DashboardCacheStats stats() {
+        CacheStats s = cache.synchronous().stats();
+        return new DashboardCacheStats(
+                s.hitCount(),
+                s.missCount(),
+                s.evictionCount(),
+                cache.synchronous().estimatedSize(),
+                s.hitRate()
+        );
+    }
+}
@@ -1,7 +1,9 @@
 package com.yassine.expensetracker.dashboard;
 
+import com.yassine.expensetracker.common.DateRange;
 import com.yassine.expensetracker.security.auth.AuthUser;
 import com.yassine.expensetracker.common.dto.CategorySpendDto;
+import com.yassine.expensetracker.common.dto.DashboardOverviewResponse;
 import com.yassine.expensetracker.common.dto.DashboardResponse;
 import com.yassine.expensetracker.common.dto.MerchantSpendDto;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -17,9 +19,11 @@ import java.util.UUID;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardCache dashboardCache;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, DashboardCache dashboardCache) {
         this.dashboardService = dashboardService;
+        this.dashboardCache = dashboardCache;
     }
 
     @GetMapping
@@ -37,7 +41,10 @@ public class DashboardController {
         }
 
         UUID userId = user.id();
-        return dashboardService.getDashboard(userId, from, to, top);
+        DateRange range = DateRange.defaultLast12Months(from, to);
+        return dashboardCache.get(userId, DashboardCache.View.DASHBOARD, range, top, 0,
+                () -> dashboardService.getDashboard(userId, range.from(), range.to(), top),
+                DashboardResponse::complete);
     }
 
     @GetMapping("/categories")
@@ -47,7 +54,9 @@ public class DashboardController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
     ) {
         UUID userId = user.id();
-        return dashboardService.spendByCategory(userId, from, to);
+        DateRange range = DateRange.defaultLast12Months(from, to);
+        return dashboardCache.get(userId, DashboardCache.View.CATEGORIES, range, 0, 0,
+                () -> dashboardService.spendByCategory(userId, range.from(), range.to()));
     }
 
     @GetMapping("/merchants")
@@ -58,6 +67,22 @@ public class DashboardController {
             @RequestParam(defaultValue = "10") int limit
     ) {
         UUID userId = user.id();
-        return dashboardService.spendByMerchant(userId, from, to, limit);
+        DateRange range = DateRange.defaultLast12Months(from, to);
+        return dashboardCache.get(userId, DashboardCache.View.MERCHANTS, range, 0, limit,
+                () -> dashboardService.spendByMerchant(userId, range.from(), range.to(), limit));
+    }
+
+    @GetMapping("/overview")
+    public DashboardOverviewResponse overview(
+            @AuthenticationPrincipal AuthUser user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "5") int top,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        UUID userId = user.id();
+        DateRange range = DateRange.defaultLast12Months(from, to);
+        return dashboardCache.get(userId, DashboardCache.View.OVERVIEW, range, top, limit,
+                () -> dashboardService.getOverview(userId, range.from(), range.to(), top, limit));
     }
 }
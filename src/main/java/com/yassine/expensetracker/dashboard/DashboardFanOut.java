@@ -0,0 +1,197 @@
+package com.yassine.expensetracker.dashboard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sub-queries of a dashboard and times each of them.
+ * <p>
+ * Sequential mode (default): the sub-queries run one after the other on the caller thread,
+ * inside a single read-only transaction, so the latency is the sum of the round trips.
+ * <p>
+ * Parallel mode (app.dashboard.parallel.enabled=true): each sub-query runs on its own virtual
+ * thread in its own read-only transaction, hence on its own pooled connection, and the latency
+ * becomes the slowest one. A dashboard miss then holds up to 3 connections at once, so size the
+ * Hikari pool accordingly. All sub-queries share one deadline (timeout-ms). A part that misses
+ * it or fails either fails the whole call with a 503 (on-timeout=fail) or is reported as
+ * unavailable (on-timeout=partial). The transaction timeout also makes the driver cancel a
+ * late statement server-side instead of letting it run for nothing.
+ */
+@Component
+public class DashboardFanOut implements DisposableBean {
+
+    public enum OnTimeout { FAIL, PARTIAL }
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardFanOut.class);
+
+    private final TransactionTemplate sequentialTx;
+    private final TransactionTemplate partTx;
+    private final ExecutorService executor;
+    private final Duration timeout;
+    private final OnTimeout onTimeout;
+
+    public DashboardFanOut(PlatformTransactionManager transactionManager,
+                           @Value("${app.dashboard.parallel.enabled:false}") boolean parallel,
+                           @Value("${app.dashboard.parallel.timeout-ms:2000}") long timeoutMs,
+                           @Value("${app.dashboard.parallel.on-timeout:partial}") String onTimeout) {
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("app.dashboard.parallel.timeout-ms must be > 0");
+        }
+        this.sequentialTx = new TransactionTemplate(transactionManager);
+        this.sequentialTx.setReadOnly(true);
+        this.partTx = new TransactionTemplate(transactionManager);
+        this.partTx.setReadOnly(true);
+        // timeout JDBC en secondes, arrondi au-dessus
+        this.partTx.setTimeout((int) Math.ceil(timeoutMs / 1000.0));
+        this.executor = parallel ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.onTimeout = OnTimeout.valueOf(onTimeout.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public boolean parallel() {
+        return executor != null;
+    }
+
+    public Scope open(String name) {
+        return new Scope(name);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /** One fan-out: fork the parts, then {@link #join()} once before reading them. */
+    public final class Scope {
+
+        private final String name;
+        private final long start = System.nanoTime();
+        private final List<Part<?>> parts = new ArrayList<>();
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        public <T> Part<T> fork(String partName, Supplier<T> query) {
+            Part<T> part = new Part<>(partName, query);
+            if (executor != null) {
+                part.future = executor.submit(() -> partTx.execute(s -> part.run()));
+            }
+            parts.add(part);
+            return part;
+        }
+
+        /**
+         * Waits for every part and returns the names of the unavailable ones (always empty in
+         * sequential mode, where a failure propagates as is).
+         */
+        public List<String> join() {
+            List<String> unavailable = new ArrayList<>();
+            if (executor == null) {
+                sequentialTx.executeWithoutResult(s -> parts.forEach(p -> p.complete(p.run())));
+            } else {
+                long deadline = start + timeout.toNanos();
+                for (Part<?> p : parts) {
+                    if (!p.await(deadline)) unavailable.add(p.name);
+                }
+            }
+
+            long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (!unavailable.isEmpty()) {
+                log.warn("{} fan-out incomplete after {} ms, unavailable {} ({})", name, totalMs, unavailable, timings());
+                if (onTimeout == OnTimeout.FAIL) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Dashboard temporarily unavailable");
+                }
+            } else if (log.isDebugEnabled()) {
+                log.debug("{} {} in {} ms ({})", name, executor == null ? "sequential" : "fan-out", totalMs, timings());
+            }
+            return unavailable;
+        }
+
+        private String timings() {
+            StringBuilder sb = new StringBuilder();
+            for (Part<?> p : parts) {
+                if (!sb.isEmpty()) sb.append(", ");
+                sb.append(p.name).append('=');
+                long nanos = p.nanos;
+                sb.append(nanos < 0 ? "n/a" : TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+            }
+            return sb.toString();
+        }
+    }
+
+    /** Result of one sub-query, readable after {@link Scope#join()}. */
+    public static final class Part<T> {
+
+        private final String name;
+        private final Supplier<T> query;
+        private Future<T> future;
+        private volatile long nanos = -1;
+        private T value;
+        private boolean available;
+
+        private Part(String name, Supplier<T> query) {
+            this.name = name;
+            this.query = query;
+        }
+
+        /** The value, or {@code fallback} if this part timed out or failed. */
+        public T orElse(T fallback) {
+            return available ? value : fallback;
+        }
+
+        public Duration elapsed() {
+            long n = nanos;
+            return n < 0 ? null : Duration.ofNanos(n);
+        }
+
+        private T run() {
+            long t0 = System.nanoTime();
+            try {
+                return query.get();
+            } finally {
+                nanos = System.nanoTime() - t0;
+            }
+        }
+
+        private void complete(Object result) {
+            @SuppressWarnings("unchecked") T v = (T) result;
+            value = v;
+            available = true;
+        }
+
+        private boolean await(long deadline) {
+            try {
+                complete(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException ex) {
+                // pas d'interruption : elle fermerait la socket JDBC, le timeout de transaction annule la requête
+                future.cancel(false);
+            } catch (ExecutionException ex) {
+                log.warn("Dashboard part {} failed", name, ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                future.cancel(false);
+            }
+            return available;
+        }
+    }
+}
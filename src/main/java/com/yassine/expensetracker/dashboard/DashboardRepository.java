@@ -17,18 +17,36 @@ public interface DashboardRepository extends JpaRepository<Expense, UUID> {
         long getCount();
     }
 
-    @Query("""
+    /*
+     * summary / topCategories / monthlySpend / spendByCategory read whole months from
+     * spend_rollup and only aggregate raw expenses for the partial months at the edges
+     * of the range. [monthFrom, monthTo) is the span of fully covered months
+     * (see DateRange#firstFullMonth / DateRange#endOfFullMonths).
+     */
+
+    @Query(value = """
         select
-          coalesce(sum(e.amount), 0) as total,
-          count(e.id) as count
-        from Expense e
-        where e.user.id = :userId
-          and e.expenseDate between :from and :to
-    """)
+          coalesce(sum(x.total), 0) as total,
+          cast(coalesce(sum(x.count), 0) as bigint) as count
+        from (
+          select r.total, r.count
+          from spend_rollup r
+          where r.user_id = :userId
+            and r.month >= :monthFrom and r.month < :monthTo
+          union all
+          select e.amount, 1
+          from expenses e
+          where e.user_id = :userId
+            and e.expense_date between :from and :to
+            and (e.expense_date < :monthFrom or e.expense_date >= :monthTo)
+        ) x
+    """, nativeQuery = true)
     SummaryView summary(
             @Param("userId") UUID userId,
             @Param("from") LocalDate from,
-            @Param("to") LocalDate to
+            @Param("to") LocalDate to,
+            @Param("monthFrom") LocalDate monthFrom,
+            @Param("monthTo") LocalDate monthTo
     );
 
     interface TopCategoryView {
@@ -37,22 +55,34 @@ public interface DashboardRepository extends JpaRepository<Expense, UUID> {
         BigDecimal getTotal();
     }
 
-    @Query("""
+    @Query(value = """
         select
           c.id as categoryId,
           c.name as categoryName,
-          coalesce(sum(e.amount), 0) as total
-        from Expense e
-        join e.category c
-        where e.user.id = :userId
-          and e.expenseDate between :from and :to
+          coalesce(sum(x.total), 0) as total
+        from (
+          select r.category_id, r.total
+          from spend_rollup r
+          where r.user_id = :userId
+            and r.month >= :monthFrom and r.month < :monthTo
+            and r.count > 0
+          union all
+          select e.category_id, e.amount
+          from expenses e
+          where e.user_id = :userId
+            and e.expense_date between :from and :to
+            and (e.expense_date < :monthFrom or e.expense_date >= :monthTo)
+        ) x
+        join categories c on c.id = x.category_id
         group by c.id, c.name
-        order by sum(e.amount) desc
-    """)
+        order by sum(x.total) desc
+    """, nativeQuery = true)
     List<TopCategoryView> topCategories(
             @Param("userId") UUID userId,
             @Param("from") LocalDate from,
             @Param("to") LocalDate to,
+            @Param("monthFrom") LocalDate monthFrom,
+            @Param("monthTo") LocalDate monthTo,
             org.springframework.data.domain.Pageable pageable
     );
 
@@ -63,18 +93,30 @@ public interface DashboardRepository extends JpaRepository<Expense, UUID> {
 
     @Query(value = """
         select
-          to_char(date_trunc('month', e.expense_date), 'YYYY-MM') as month,
-          coalesce(sum(e.amount), 0) as total
-        from expenses e
-        where e.user_id = :userId
-          and e.expense_date between :from and :to
+          to_char(x.month, 'YYYY-MM') as month,
+          coalesce(sum(x.total), 0) as total
+        from (
+          select r.month, r.total
+          from spend_rollup r
+          where r.user_id = :userId
+            and r.month >= :monthFrom and r.month < :monthTo
+            and r.count > 0
+          union all
+          select cast(date_trunc('month', e.expense_date) as date), e.amount
+          from expenses e
+          where e.user_id = :userId
+            and e.expense_date between :from and :to
+            and (e.expense_date < :monthFrom or e.expense_date >= :monthTo)
+        ) x
         group by 1
         order by 1
     """, nativeQuery = true)
     List<MonthlySpendView> monthlySpend(
             @Param("userId") UUID userId,
             @Param("from") LocalDate from,
-            @Param("to") LocalDate to
+            @Param("to") LocalDate to,
+            @Param("monthFrom") LocalDate monthFrom,
+            @Param("monthTo") LocalDate monthTo
     );
 
 
@@ -100,23 +142,35 @@ public interface DashboardRepository extends JpaRepository<Expense, UUID> {
         long getCount();
     }
 
-    @Query("""
+    @Query(value = """
         select
           c.id as categoryId,
           c.name as categoryName,
-          coalesce(sum(e.amount), 0) as total,
-          count(e.id) as count
-        from Expense e
-        join e.category c
-        where e.user.id = :userId
-          and e.expenseDate between :from and :to
+          coalesce(sum(x.total), 0) as total,
+          cast(coalesce(sum(x.count), 0) as bigint) as count
+        from (
+          select r.category_id, r.total, r.count
+          from spend_rollup r
+          where r.user_id = :userId
+            and r.month >= :monthFrom and r.month < :monthTo
+            and r.count > 0
+          union all
+          select e.category_id, e.amount, 1
+          from expenses e
+          where e.user_id = :userId
+            and e.expense_date between :from and :to
+            and (e.expense_date < :monthFrom or e.expense_date >= :monthTo)
+        ) x
+        join categories c on c.id = x.category_id
         group by c.id, c.name
-        order by sum(e.amount) desc
-    """)
+        order by sum(x.total) desc
+    """, nativeQuery = true)
     List<DashboardRepository.CategorySpendView> spendByCategory(
             @Param("userId") UUID userId,
             @Param("from") LocalDate from,
-            @Param("to") LocalDate to
+            @Param("to") LocalDate to,
+            @Param("monthFrom") LocalDate monthFrom,
+            @Param("monthTo") LocalDate monthTo
     );
 
     interface MerchantSpendView {
@@ -129,7 +183,7 @@ public interface DashboardRepository extends JpaRepository<Expense, UUID> {
         select
           coalesce(e.merchant, 'Unknown') as merchant,
           coalesce(sum(e.amount), 0) as total,
-          count(e.id) as count
+          count(*) as count
         from Expense e
         where e.user.id = :userId
           and e.expenseDate between :from and :to
@@ -142,4 +196,83 @@ public interface DashboardRepository extends JpaRepository<Expense, UUID> {
             @Param("to") LocalDate to,
             org.springframework.data.domain.Pageable pageable
     );
+
+    interface BreakdownRowView {
+        String getKind();           // TOTAL | CATEGORY | MONTH | MERCHANT
+        UUID getCategoryId();       // CATEGORY
+        String getCategoryName();   // CATEGORY
+        String getMonth();          // MONTH, "YYYY-MM"
+        String getMerchant();       // MERCHANT
+        BigDecimal getTotal();
+        long getCount();
+    }
+
+    /*
+     * Every breakdown above in one statement: the (user_id, expense_date) slice of expenses is
+     * read once (a CTE referenced twice is materialized), the total / per-category / per-month
+     * aggregates come from one GROUPING SETS pass over rollup + edge rows, the merchants from the
+     * same slice (spend_rollup has no merchant). Rows are tagged by kind, ordered by total desc
+     * within CATEGORY / MERCHANT and by month within MONTH.
+     */
+    @Query(value = """
+        with slice as (
+          select e.category_id, e.expense_date, e.merchant, e.amount
+          from expenses e
+          where e.user_id = :userId
+            and e.expense_date between :from and :to
+        ),
+        facts as (
+          select r.category_id, r.month, r.total, r.count
+          from spend_rollup r
+          where r.user_id = :userId
+            and r.month >= :monthFrom and r.month < :monthTo
+            and r.count > 0
+          union all
+          select s.category_id, cast(date_trunc('month', s.expense_date) as date), s.amount, 1
+          from slice s
+          where s.expense_date < :monthFrom or s.expense_date >= :monthTo
+        ),
+        grouped as (
+          select
+            case grouping(f.category_id, f.month) when 1 then 'CATEGORY' when 2 then 'MONTH' else 'TOTAL' end as kind,
+            f.category_id,
+            f.month,
+            coalesce(sum(f.total), 0) as total,
+            cast(coalesce(sum(f.count), 0) as bigint) as count
+          from facts f
+          group by grouping sets ((), (f.category_id), (f.month))
+        ),
+        merchants as (
+          select
+            coalesce(s.merchant, 'Unknown') as merchant,
+            sum(s.amount) as total,
+            count(*) as count,
+            row_number() over (order by sum(s.amount) desc) as rank
+          from slice s
+          group by 1
+        )
+        select
+          g.kind as kind,
+          g.category_id as categoryId,
+          c.name as categoryName,
+          to_char(g.month, 'YYYY-MM') as month,
+          cast(null as varchar) as merchant,
+          g.total as total,
+          g.count as count
+        from grouped g
+        left join categories c on c.id = g.category_id
+        union all
+        select 'MERCHANT', cast(null as uuid), null, null, m.merchant, m.total, m.count
+        from merchants m
+        where m.rank <= :merchantLimit
+        order by 1, 4, 6 desc
+    """, nativeQuery = true)
+    List<BreakdownRowView> breakdown(
+            @Param("userId") UUID userId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("monthFrom") LocalDate monthFrom,
+            @Param("monthTo") LocalDate monthTo,
+            @Param("merchantLimit") int merchantLimit
+    );
 }
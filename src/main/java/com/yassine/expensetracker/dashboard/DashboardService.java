@@ -6,41 +6,60 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Service
 public class DashboardService {
 
+    static final int MAX_OVERVIEW_LIMIT = 100;
+
     private final DashboardRepository dashboardRepository;
+    private final DashboardFanOut fanOut;
 
-    public DashboardService(DashboardRepository dashboardRepository) {
+    public DashboardService(DashboardRepository dashboardRepository, DashboardFanOut fanOut) {
         this.dashboardRepository = dashboardRepository;
+        this.fanOut = fanOut;
     }
 
-    @Transactional(readOnly = true)
+    /** Transactions are opened by DashboardFanOut: one for the 3 queries, or one per query in parallel mode. */
     public DashboardResponse getDashboard(UUID userId, LocalDate from, LocalDate to, int top) {
         DateRange range = DateRange.defaultLast12Months(from, to);
 
-        DashboardRepository.SummaryView sv =
-                dashboardRepository.summary(userId, range.from(), range.to());
+        LocalDate monthFrom = range.firstFullMonth();
+        LocalDate monthTo = range.endOfFullMonths();
 
-        SummaryDto summary = new SummaryDto(sv.getTotal(), sv.getCount());
+        DashboardFanOut.Scope scope = fanOut.open("dashboard");
 
-        List<TopCategoryDto> topCategories = dashboardRepository
-                .topCategories(userId, range.from(), range.to(), PageRequest.of(0, top))
+        DashboardFanOut.Part<SummaryDto> summary = scope.fork("summary", () -> {
+            DashboardRepository.SummaryView sv =
+                    dashboardRepository.summary(userId, range.from(), range.to(), monthFrom, monthTo);
+            return new SummaryDto(sv.getTotal(), sv.getCount());
+        });
+
+        DashboardFanOut.Part<List<TopCategoryDto>> topCategories = scope.fork("topCategories", () -> dashboardRepository
+                .topCategories(userId, range.from(), range.to(), monthFrom, monthTo, PageRequest.of(0, top))
                 .stream()
                 .map(v -> new TopCategoryDto(v.getCategoryId(), v.getCategoryName(), v.getTotal()))
-                .toList();
+                .toList());
 
-        List<MonthlySpendDto> monthly = dashboardRepository
-                .monthlySpend(userId, range.from(), range.to())
+        DashboardFanOut.Part<List<MonthlySpendDto>> monthly = scope.fork("monthlySeries", () -> dashboardRepository
+                .monthlySpend(userId, range.from(), range.to(), monthFrom, monthTo)
                 .stream()
                 .map(v -> new MonthlySpendDto(v.getMonth(), v.getTotal()))
-                .toList();
+                .toList());
+
+        List<String> unavailable = scope.join();
 
-        return new DashboardResponse(summary, topCategories, monthly);
+        return new DashboardResponse(
+                summary.orElse(null),
+                topCategories.orElse(List.of()),
+                monthly.orElse(List.of()),
+                List.copyOf(unavailable)
+        );
     }
 
     @Transactional(readOnly = true)
@@ -48,7 +67,7 @@ public class DashboardService {
         DateRange range = DateRange.defaultLast12Months(from, to);
 
         return dashboardRepository
-                .spendByCategory(userId, range.from(), range.to())
+                .spendByCategory(userId, range.from(), range.to(), range.firstFullMonth(), range.endOfFullMonths())
                 .stream()
                 .map(v -> new CategorySpendDto(v.getCategoryId(), v.getCategoryName(), v.getTotal(), v.getCount()))
                 .toList();
@@ -64,4 +83,40 @@ public class DashboardService {
                 .map(v -> new MerchantSpendDto(v.getMerchant(), v.getTotal(), v.getCount()))
                 .toList();
     }
+
+    /**
+     * Dashboard + categories + merchants from a single scan of the range (DashboardRepository#breakdown),
+     * for clients that display all of them: one round trip instead of five.
+     */
+    @Transactional(readOnly = true)
+    public DashboardOverviewResponse getOverview(UUID userId, LocalDate from, LocalDate to, int top, int merchantLimit) {
+        if (top < 1 || top > MAX_OVERVIEW_LIMIT || merchantLimit < 1 || merchantLimit > MAX_OVERVIEW_LIMIT) {
+            throw new IllegalArgumentException("top and limit must be between 1 and " + MAX_OVERVIEW_LIMIT);
+        }
+        DateRange range = DateRange.defaultLast12Months(from, to);
+
+        SummaryDto summary = new SummaryDto(BigDecimal.ZERO, 0);
+        List<CategorySpendDto> categories = new ArrayList<>();
+        List<MonthlySpendDto> monthly = new ArrayList<>();
+        List<MerchantSpendDto> merchants = new ArrayList<>();
+
+        for (DashboardRepository.BreakdownRowView row : dashboardRepository.breakdown(
+                userId, range.from(), range.to(), range.firstFullMonth(), range.endOfFullMonths(), merchantLimit)) {
+            switch (row.getKind()) {
+                case "TOTAL" -> summary = new SummaryDto(row.getTotal(), row.getCount());
+                case "CATEGORY" -> categories.add(
+                        new CategorySpendDto(row.getCategoryId(), row.getCategoryName(), row.getTotal(), row.getCount()));
+                case "MONTH" -> monthly.add(new MonthlySpendDto(row.getMonth(), row.getTotal()));
+                case "MERCHANT" -> merchants.add(new MerchantSpendDto(row.getMerchant(), row.getTotal(), row.getCount()));
+                default -> throw new IllegalStateException("Unknown breakdown kind: " + row.getKind());
+            }
+        }
+
+        List<TopCategoryDto> topCategories = categories.stream()
+                .limit(top)
+                .map(c -> new TopCategoryDto(c.categoryId(), c.categoryName(), c.total()))
+                .toList();
+
+        return new DashboardOverviewResponse(summary, topCategories, List.copyOf(monthly), List.copyOf(categories), List.copyOf(merchants));
+    }
 }
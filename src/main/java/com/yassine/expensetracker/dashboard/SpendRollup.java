@@ -0,0 +1,39 @@
+package com.yassine.expensetracker.dashboard;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Per user / month / category totals, kept in sync by ExpenseService so the dashboard
+ * doesn't have to aggregate raw expenses for whole months.
+ */
+@Entity
+@Table(name = "spend_rollup")
+public class SpendRollup {
+
+    @Embeddable
+    public record Key(
+            @Column(name = "user_id") UUID userId,
+            @Column(name = "month") LocalDate month,
+            @Column(name = "category_id") UUID categoryId
+    ) implements Serializable {}
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private long count;
+
+    protected SpendRollup() {}
+
+    public Key getId() { return id; }
+    public BigDecimal getTotal() { return total; }
+    public long getCount() { return count; }
+}
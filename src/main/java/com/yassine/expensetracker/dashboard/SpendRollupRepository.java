@@ -0,0 +1,39 @@
+package com.yassine.expensetracker.dashboard;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface SpendRollupRepository extends JpaRepository<SpendRollup, SpendRollup.Key> {
+
+    /**
+     * Adds a signed delta to the (user, month, category) bucket, creating it if needed.
+     * Called in the same transaction as the expense write. The query space tells Hibernate
+     * which table this native statement touches: without it, every execution would wipe the
+     * whole second-level and query cache.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spend_rollup"))
+    @Query(value = """
+        insert into spend_rollup (user_id, month, category_id, total, count)
+        values (:userId, :month, :categoryId, :amount, :count)
+        on conflict (user_id, month, category_id) do update
+          set total = spend_rollup.total + excluded.total,
+              count = spend_rollup.count + excluded.count
+    """, nativeQuery = true)
+    int add(
+            @Param("userId") UUID userId,
+            @Param("month") LocalDate month,
+            @Param("categoryId") UUID categoryId,
+            @Param("amount") BigDecimal amount,
+            @Param("count") long count
+    );
+}
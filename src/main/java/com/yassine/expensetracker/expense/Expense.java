@@ -1,6 +1,7 @@
 package com.yassine.expensetracker.expense;
 
 import com.yassine.expensetracker.category.Category;
+import com.yassine.expensetracker.common.TimeOrderedUuidGenerator;
 import com.yassine.expensetracker.user.User;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -15,6 +16,11 @@ import java.util.UUID;
 @Table(name = "expenses")
 public class Expense {
 
+    /*
+     * The table's primary key is (id, expense_date) (partitioned by month, V8): nothing in the
+     * DB makes id unique on its own, across nor within partitions. Ids are only ever generated
+     * here (UUIDv7, 74 random bits per millisecond), never taken from a client.
+     */
     @Id
     private UUID id;
 
@@ -49,7 +55,7 @@ public class Expense {
 
     @PrePersist
     void prePersist() {
-        if (id == null) id = UUID.randomUUID();
+        if (id == null) id = TimeOrderedUuidGenerator.next();
     }
 
     @PreUpdate
@@ -4,15 +4,30 @@ import com.yassine.expensetracker.security.auth.AuthUser;
 import com.yassine.expensetracker.expense.ExpenseDtos.*;
 import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import com.yassine.expensetracker.common.CursorPageResponse;
+import com.yassine.expensetracker.common.LimitedInputStream;
 import com.yassine.expensetracker.common.PageResponse;
 import com.yassine.expensetracker.expense.ExpenseDtos.ExpenseResponse;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.databind.JsonNode;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -20,9 +35,19 @@ import java.util.UUID;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseImportService importService;
+    private final ExpenseExportService exportService;
+    // batch JSON et CSV brut : mêmes bornes que l'upload multipart (spring.servlet.multipart.*)
+    private final long maxImportBytes;
 
-    public ExpenseController(ExpenseService expenseService) {
+    public ExpenseController(ExpenseService expenseService,
+                             ExpenseImportService importService,
+                             ExpenseExportService exportService,
+                             @Value("${app.expenses.import.max-bytes:20971520}") long maxImportBytes) {
         this.expenseService = expenseService;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.maxImportBytes = maxImportBytes;
     }
 
     @PostMapping
@@ -33,6 +58,40 @@ public class ExpenseController {
         return expenseService.create(user.id(), req);
     }
 
+    /**
+     * JSON array body, read row by row (see ExpenseImportService.readBatch). Rows are validated one
+     * by one: invalid rows are reported, valid ones inserted.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ImportResponse createBatch(
+            @AuthenticationPrincipal AuthUser user,
+            InputStream body
+    ) {
+        List<JsonNode> rows = importService.readBatch(new LimitedInputStream(body, maxImportBytes));
+        return importService.importBatch(user.id(), rows);
+    }
+
+    /** Raw text/csv body, read as a stream. */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportResponse importCsv(
+            @AuthenticationPrincipal AuthUser user,
+            InputStream body
+    ) throws IOException {
+        try (Reader reader = new InputStreamReader(new LimitedInputStream(body, maxImportBytes), StandardCharsets.UTF_8)) {
+            return importService.importCsv(user.id(), reader);
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ImportResponse importCsvFile(
+            @AuthenticationPrincipal AuthUser user,
+            @RequestParam("file") MultipartFile file
+    ) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return importService.importCsv(user.id(), reader);
+        }
+    }
+
     @PutMapping("/{id}")
     public ExpenseResponse update(
             @AuthenticationPrincipal AuthUser user,
@@ -67,6 +126,49 @@ public class ExpenseController {
         return expenseService.search(user.id(), from, to, categoryId, min, max, q, pageable);
     }
 
+    @GetMapping(params = "pagination=cursor")
+    public CursorPageResponse<ExpenseResponse> searchByCursor(
+            @AuthenticationPrincipal AuthUser user,
+
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) BigDecimal min,
+            @RequestParam(required = false) BigDecimal max,
+            @RequestParam(required = false) String q,
+
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        return expenseService.searchAfter(user.id(), from, to, categoryId, min, max, q, cursor, size, includeTotal);
+    }
+
+    /** Streamed straight to the response, oldest first (format=csv|ndjson). */
+    @GetMapping("/export")
+    public void export(
+            @AuthenticationPrincipal AuthUser user,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        ExpenseExportService.Format f = ExpenseExportService.Format.of(format);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must be <= 'to'");
+        }
+
+        response.setContentType(f.contentType);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("expenses_" + from + "_" + to + "." + f.extension)
+                .build()
+                .toString());
+
+        exportService.export(user.id(), from, to, f, response.getOutputStream());
+    }
+
     @GetMapping("/summary")
     public ExpenseSummaryResponse summary(
             @AuthenticationPrincipal AuthUser user,
@@ -0,0 +1,37 @@
+package com.yassine.expensetracker.expense;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a page, in the (expense_date desc, id desc) order.
+ * Encoded as an opaque base64url string so clients don't build it themselves.
+ */
+record ExpenseCursor(LocalDate expenseDate, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    static ExpenseCursor of(ExpenseDtos.ExpenseResponse e) {
+        return new ExpenseCursor(e.expenseDate(), e.id());
+    }
+
+    String encode() {
+        String raw = expenseDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ExpenseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            return new ExpenseCursor(
+                    LocalDate.parse(raw.substring(0, sep)),
+                    UUID.fromString(raw.substring(sep + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public class ExpenseDtos {
@@ -20,7 +21,8 @@ public class ExpenseDtos {
     ) {}
 
     public record CreateExpenseRequest(
-            @NotNull @DecimalMin("0.01") BigDecimal amount,
+            // numeric(12,2) : un montant plus grand échouerait au flush, pas à la validation
+            @NotNull @DecimalMin("0.01") @Digits(integer = 10, fraction = 2) BigDecimal amount,
             @NotNull LocalDate expenseDate,
             @NotNull UUID categoryId,
             @Size(max = 120) String merchant,
@@ -28,7 +30,7 @@ public class ExpenseDtos {
     ) {}
 
     public record UpdateExpenseRequest(
-            @NotNull @DecimalMin("0.01") BigDecimal amount,
+            @NotNull @DecimalMin("0.01") @Digits(integer = 10, fraction = 2) BigDecimal amount,
             @NotNull LocalDate expenseDate,
             @NotNull UUID categoryId,
             @Size(max = 120) String merchant,
@@ -40,6 +42,17 @@ public class ExpenseDtos {
             long totalCount
     ) {}
 
+    /** Outcome of a batch / CSV import: valid rows are inserted, invalid ones reported. */
+    public record ImportResponse(
+            int received,
+            int imported,
+            int rejected,
+            List<RowError> errors
+    ) {}
+
+    /** Row number is 1-based (for CSV the header is row 1, like in a spreadsheet). */
+    public record RowError(int row, String message) {}
+
     public interface ExpenseSummaryView {
         BigDecimal getTotalAmount();
         long getTotalCount();
@@ -0,0 +1,95 @@
+package com.yassine.expensetracker.expense;
+
+import com.yassine.expensetracker.common.CsvWriter;
+import com.yassine.expensetracker.expense.ExpenseDtos.ExpenseResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's expenses straight from a JDBC cursor to the response: one row is read,
+ * written and dropped at a time, so memory stays flat whatever the size of the history.
+ * The CSV layout is the one accepted by {@link ExpenseImportService#importCsv}.
+ */
+@Service
+public class ExpenseExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (csv or ndjson)");
+            }
+        }
+    }
+
+    private final ExpenseRepository expenseRepository;
+    private final ObjectWriter jsonWriter;
+
+    public ExpenseExportService(ExpenseRepository expenseRepository, JsonMapper jsonMapper) {
+        this.expenseRepository = expenseRepository;
+        this.jsonWriter = jsonMapper.writer();
+    }
+
+    @Transactional(readOnly = true)
+    public void export(UUID userId, LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<ExpenseResponse> rows = expenseRepository.streamForExport(userId, from, to)) {
+            Iterator<ExpenseResponse> it = rows.iterator();
+            switch (format) {
+                case CSV -> writeCsv(it, writer);
+                case NDJSON -> writeNdjson(it, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Iterator<ExpenseResponse> rows, Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRow("id", "date", "amount", "currency", "category", "merchant", "note");
+        while (rows.hasNext()) {
+            ExpenseResponse e = rows.next();
+            csv.writeRow(
+                    e.id().toString(),
+                    e.expenseDate().toString(),
+                    e.amount().toPlainString(),
+                    e.currency(),
+                    e.categoryName(),
+                    e.merchant(),
+                    e.note()
+            );
+        }
+    }
+
+    private void writeNdjson(Iterator<ExpenseResponse> rows, Writer writer) throws IOException {
+        while (rows.hasNext()) {
+            writer.write(jsonWriter.writeValueAsString(rows.next()));
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.yassine.expensetracker.expense;
+
+import com.yassine.expensetracker.category.Category;
+import com.yassine.expensetracker.category.CategoryRepository;
+import com.yassine.expensetracker.common.CsvReader;
+import com.yassine.expensetracker.common.SpendDataChangedEvent;
+import com.yassine.expensetracker.dashboard.SpendRollupRepository;
+import com.yassine.expensetracker.expense.ExpenseDtos.*;
+import com.yassine.expensetracker.user.User;
+import com.yassine.expensetracker.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk creation of expenses (JSON batch or CSV upload).
+ * <p>
+ * Categories and the user are loaded once per import, rows are persisted through
+ * Hibernate JDBC batching (hibernate.jdbc.batch_size) and the persistence context is
+ * flushed + cleared every batch so memory stays flat on large files. Invalid rows are
+ * reported and skipped, they never roll back the valid ones. Both formats are capped at
+ * MAX_BATCH_ROWS rows, counted while reading: past it the whole import is refused (400).
+ */
+@Service
+public class ExpenseImportService {
+
+    static final int MAX_BATCH_ROWS = 5_000;
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private final EntityManager em;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final SpendRollupRepository spendRollupRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher events;
+    private final JsonMapper jsonMapper;
+    // un élément du tableau à la fois : la suite du tableau n'est pas un "trailing token"
+    private final ObjectReader treeReader;
+    private final ObjectReader rowReader;
+    private final int flushSize;
+
+    public ExpenseImportService(EntityManager em,
+                                CategoryRepository categoryRepository,
+                                UserRepository userRepository,
+                                SpendRollupRepository spendRollupRepository,
+                                Validator validator,
+                                ApplicationEventPublisher events,
+                                JsonMapper jsonMapper,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int flushSize) {
+        this.em = em;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.spendRollupRepository = spendRollupRepository;
+        this.validator = validator;
+        this.events = events;
+        this.jsonMapper = jsonMapper;
+        this.treeReader = jsonMapper.reader().without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.rowReader = jsonMapper.readerFor(CreateExpenseRequest.class);
+        this.flushSize = Math.max(1, flushSize);
+    }
+
+    /**
+     * Reads a JSON array of rows one element at a time, so an oversized batch is refused at row
+     * MAX_BATCH_ROWS + 1 instead of after the whole list was deserialized. Elements stay trees here:
+     * only broken JSON fails the whole batch, a row with a bad value is reported by importBatch.
+     */
+    public List<JsonNode> readBatch(InputStream body) {
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Batch must be a JSON array");
+            }
+            List<JsonNode> rows = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Invalid JSON batch: unexpected end of input");
+                }
+                if (rows.size() == MAX_BATCH_ROWS) {
+                    throw new IllegalArgumentException("Batch too large (max " + MAX_BATCH_ROWS + " rows)");
+                }
+                rows.add(treeReader.readTree(parser));
+            }
+            return rows;
+        } catch (JacksonException ex) {
+            throw new IllegalArgumentException("Invalid JSON batch: " + ex.getOriginalMessage());
+        }
+    }
+
+    @Transactional
+    public ImportResponse importBatch(UUID userId, List<JsonNode> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("Batch is empty");
+        }
+        if (rows.size() > MAX_BATCH_ROWS) {
+            throw new IllegalArgumentException("Batch too large (max " + MAX_BATCH_ROWS + " rows)");
+        }
+
+        Import imp = new Import(userId);
+        int row = 0;
+        for (JsonNode node : rows) {
+            row++;
+            if (node == null || node.isNull()) {
+                imp.reject(row, "Empty row");
+                continue;
+            }
+            CreateExpenseRequest req;
+            try {
+                req = rowReader.readValue(node);
+            } catch (JacksonException ex) {
+                imp.reject(row, conversionError(ex));
+                continue;
+            }
+            imp.add(row, req);
+        }
+        return imp.finish();
+    }
+
+    // "amount": "abc", "expenseDate": "2025-13-40"... -> "amount: invalid value"
+    private static String conversionError(JacksonException ex) {
+        return ex.getPath().stream()
+                .map(JacksonException.Reference::getPropertyName)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(field -> field + ": invalid value")
+                .orElse("Invalid row");
+    }
+
+    /**
+     * CSV columns (header required, any order, case-insensitive):
+     * date (yyyy-MM-dd), amount (dot decimal), category (name or id), merchant and note optional.
+     */
+    @Transactional
+    public ImportResponse importCsv(UUID userId, Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        CsvColumns columns = CsvColumns.of(csv.next());
+
+        Import imp = new Import(userId);
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (imp.received() == MAX_BATCH_ROWS) {
+                throw new IllegalArgumentException("CSV too large (max " + MAX_BATCH_ROWS + " rows)");
+            }
+            int row = csv.recordNumber();
+            try {
+                imp.add(row, columns.toRequest(record, imp::resolveCategory));
+            } catch (IllegalArgumentException ex) {
+                imp.reject(row, ex.getMessage());
+            }
+        }
+        return imp.finish();
+    }
+
+    /** State of one import: resolved categories, pending flush count, rollup deltas, errors. */
+    private final class Import {
+
+        private final UUID userId;
+        private final User user;
+        private final Map<UUID, Category> categoriesById = new HashMap<>();
+        private final Map<String, Category> categoriesByName = new HashMap<>();
+        private final Map<RollupBucket, BigDecimal> rollup = new HashMap<>();
+        private final Map<RollupBucket, Long> rollupCount = new HashMap<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int received;
+        private int imported;
+        private int pending;
+
+        Import(UUID userId) {
+            this.userId = userId;
+            this.user = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+            for (Category c : categoryRepository.findAllByUserIdOrderByNameAsc(userId)) {
+                categoriesById.put(c.getId(), c);
+                categoriesByName.put(c.getName().toLowerCase(Locale.ROOT), c);
+            }
+        }
+
+        UUID resolveCategory(String value) {
+            try {
+                return UUID.fromString(value);
+            } catch (IllegalArgumentException notAnId) {
+                Category c = categoriesByName.get(value.toLowerCase(Locale.ROOT));
+                if (c == null) throw new IllegalArgumentException("Category not found: " + value);
+                return c.getId();
+            }
+        }
+
+        void add(int row, CreateExpenseRequest req) {
+            received++;
+
+            Set<ConstraintViolation<CreateExpenseRequest>> violations = validator.validate(req);
+            if (!violations.isEmpty()) {
+                error(row, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+
+            Category category = categoriesById.get(req.categoryId());
+            if (category == null) {
+                error(row, "Category not found");
+                return;
+            }
+
+            Expense e = new Expense();
+            e.setUser(user);
+            e.setCategory(category);
+            e.setAmount(req.amount());
+            e.setExpenseDate(req.expenseDate());
+            e.setMerchant(req.merchant());
+            e.setNote(req.note());
+            em.persist(e);
+
+            RollupBucket bucket = new RollupBucket(req.expenseDate().withDayOfMonth(1), category.getId());
+            rollup.merge(bucket, req.amount(), BigDecimal::add);
+            rollupCount.merge(bucket, 1L, Long::sum);
+
+            imported++;
+            if (++pending >= flushSize) {
+                flush();
+            }
+        }
+
+        int received() {
+            return received;
+        }
+
+        void reject(int row, String message) {
+            received++;
+            error(row, message);
+        }
+
+        private void error(int row, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(row, message));
+            }
+        }
+
+        // user / categories deviennent détachés après clear(), ça reste valable comme références FK
+        private void flush() {
+            em.flush();
+            em.clear();
+            pending = 0;
+        }
+
+        ImportResponse finish() {
+            flush();
+            // un upsert par (mois, catégorie) au lieu d'un par ligne
+            rollup.forEach((bucket, total) -> spendRollupRepository.add(
+                    userId, bucket.month(), bucket.categoryId(), total, rollupCount.get(bucket)));
+            if (imported > 0) {
+                events.publishEvent(new SpendDataChangedEvent(userId));
+            }
+            return new ImportResponse(received, imported, received - imported, List.copyOf(errors));
+        }
+    }
+
+    private record RollupBucket(LocalDate month, UUID categoryId) {}
+
+    /** Header -> column index mapping for the CSV import. */
+    record CsvColumns(int date, int amount, int category, int merchant, int note) {
+
+        static CsvColumns of(List<String> header) {
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                // BOM ajouté par Excel sur la première colonne
+                String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                index.putIfAbsent(name, i);
+            }
+            for (String required : List.of("date", "amount", "category")) {
+                if (!index.containsKey(required)) {
+                    throw new IllegalArgumentException("Missing CSV column: " + required);
+                }
+            }
+            return new CsvColumns(
+                    index.get("date"),
+                    index.get("amount"),
+                    index.get("category"),
+                    index.getOrDefault("merchant", -1),
+                    index.getOrDefault("note", -1)
+            );
+        }
+
+        CreateExpenseRequest toRequest(List<String> record, Function<String, UUID> categoryResolver) {
+            String date = get(record, date());
+            String amount = get(record, amount());
+            String category = get(record, category());
+            if (date == null) throw new IllegalArgumentException("date: is required");
+            if (amount == null) throw new IllegalArgumentException("amount: is required");
+            if (category == null) throw new IllegalArgumentException("category: is required");
+
+            LocalDate expenseDate;
+            try {
+                expenseDate = LocalDate.parse(date);
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("date: invalid (expected yyyy-MM-dd)");
+            }
+            BigDecimal value;
+            try {
+                value = new BigDecimal(amount);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("amount: invalid number");
+            }
+
+            return new CreateExpenseRequest(
+                    value,
+                    expenseDate,
+                    categoryResolver.apply(category),
+                    get(record, merchant()),
+                    get(record, note())
+            );
+        }
+
+        private static String get(List<String> record, int i) {
+            if (i < 0 || i >= record.size()) return null;
+            String v = record.get(i).trim();
+            return v.isEmpty() ? null : v;
+        }
+    }
+}
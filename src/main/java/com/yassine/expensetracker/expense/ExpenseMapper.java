@@ -0,0 +1,25 @@
+package com.yassine.expensetracker.expense;
+
+import com.yassine.expensetracker.expense.ExpenseDtos.ExpenseResponse;
+
+/**
+ * Entity -> DTO mapping for the write paths (the read paths project ExpenseResponse in SQL).
+ * Static and dependency-free, so it can be benchmarked on its own.
+ */
+final class ExpenseMapper {
+
+    private ExpenseMapper() {}
+
+    static ExpenseResponse toResponse(Expense e) {
+        return new ExpenseResponse(
+                e.getId(),
+                e.getAmount(),
+                e.getCurrency(),
+                e.getExpenseDate(),
+                e.getMerchant(),
+                e.getNote(),
+                e.getCategory().getId(),
+                e.getCategory().getName()
+        );
+    }
+}
@@ -0,0 +1,76 @@
+package com.yassine.expensetracker.expense;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the monthly partitions of expenses (V8) created ahead of time, at startup then daily,
+ * so inserts for upcoming months never fall into expenses_default. Creating a partition briefly
+ * locks the parent table: doing it months in advance keeps that off the request path.
+ * <p>
+ * Rows dated outside the window (an old history imported, a mistyped year) still land in
+ * expenses_default, which no query can prune. Each run gives their months a partition of their
+ * own (create_expense_partition moves the rows), and reports what is left in the default
+ * partition (app.expenses.partitions.default_rows), expected to be 0 after a run.
+ */
+@Component
+public class ExpensePartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpensePartitionMaintenance.class);
+
+    private final ExpenseRepository expenseRepository;
+    private final int monthsAhead;
+
+    private final LongAdder partitionsCreated = new LongAdder();
+    private volatile long defaultPartitionRows;
+
+    public ExpensePartitionMaintenance(
+            ExpenseRepository expenseRepository,
+            @Value("${app.expenses.partitions.months-ahead:12}") int monthsAhead
+    ) {
+        this.expenseRepository = expenseRepository;
+        this.monthsAhead = monthsAhead;
+    }
+
+    // void : une valeur de retour serait republiée comme événement par @EventListener
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.expenses.partitions.cron:0 30 3 * * *}")
+    public void maintain() {
+        LocalDate from = LocalDate.now().withDayOfMonth(1);
+        int created = expenseRepository.ensurePartitions(from, from.plusMonths(monthsAhead));
+        if (created > 0) {
+            log.info("Created {} expense partition(s) up to {}", created, from.plusMonths(monthsAhead));
+        }
+
+        for (LocalDate month : expenseRepository.monthsInDefaultPartition()) {
+            if (expenseRepository.ensurePartitions(month, month) > 0) {
+                log.info("Created expense partition for {} (rows moved out of expenses_default)", month);
+                created++;
+            }
+        }
+        partitionsCreated.add(created);
+
+        defaultPartitionRows = expenseRepository.countDefaultPartition();
+        if (defaultPartitionRows > 0) {
+            log.warn("{} expense row(s) left in expenses_default", defaultPartitionRows);
+        }
+    }
+
+    /** Partitions created since startup. */
+    public long partitionsCreated() {
+        return partitionsCreated.sum();
+    }
+
+    /** Rows in expenses_default at the end of the last run. */
+    public long defaultPartitionRows() {
+        return defaultPartitionRows;
+    }
+}
@@ -2,51 +2,209 @@ package com.yassine.expensetracker.expense;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ExpenseRepository extends JpaRepository<Expense, UUID> {
 
-    List<Expense> findByUserIdAndExpenseDateBetweenOrderByExpenseDateDesc(
-            UUID userId,
-            LocalDate from,
-            LocalDate to
-    );
+    /*
+     * The read paths below return ExpenseResponse directly, the category name coming from a join
+     * in the same statement: mapping entities would lazy-load each distinct category (N+1) and
+     * fill the persistence context for nothing.
+     */
 
     @Query("""
-    select e from Expense e
+    select new com.yassine.expensetracker.expense.ExpenseDtos$ExpenseResponse(
+      e.id, e.amount, e.currency, e.expenseDate, e.merchant, e.note, c.id, c.name
+    )
+    from Expense e
+    join e.category c
+    where e.user.id = :userId
+      and e.expenseDate between :from and :to
+    order by e.expenseDate desc
+    """)
+        List<ExpenseDtos.ExpenseResponse> list(
+                @Param("userId") UUID userId,
+                @Param("from") LocalDate from,
+                @Param("to") LocalDate to
+        );
+
+    @Query(value = """
+    select new com.yassine.expensetracker.expense.ExpenseDtos$ExpenseResponse(
+      e.id, e.amount, e.currency, e.expenseDate, e.merchant, e.note, c.id, c.name
+    )
+    from Expense e
+    join e.category c
+    where e.user.id = :userId
+      and e.expenseDate between :from and :to
+      and (:categoryId is null or c.id = :categoryId)
+      and (:min is null or e.amount >= :min)
+      and (:max is null or e.amount <= :max)
+    """, countQuery = """
+    select count(*) from Expense e
     where e.user.id = :userId
       and e.expenseDate between :from and :to
       and (:categoryId is null or e.category.id = :categoryId)
       and (:min is null or e.amount >= :min)
       and (:max is null or e.amount <= :max)
-      and (
-        :qPattern is null
-        or lower(coalesce(e.merchant, '')) like :qPattern
-        or lower(coalesce(e.note, '')) like :qPattern
-      )
     """)
-        Page<Expense> search(
+        Page<ExpenseDtos.ExpenseResponse> search(
                 @Param("userId") UUID userId,
                 @Param("from") LocalDate from,
                 @Param("to") LocalDate to,
                 @Param("categoryId") UUID categoryId,
                 @Param("min") BigDecimal min,
                 @Param("max") BigDecimal max,
-                @Param("qPattern") String qPattern,
                 Pageable pageable
         );
 
+    /**
+     * Free-text variant of {@link #search}: matches the generated search_vector column
+     * (GIN idx_expenses_user_search) against a prefix tsquery built by the service,
+     * most relevant rows first. The pageable must be unsorted, ordering is fixed here.
+     * <p>
+     * The text match sits in a materialized CTE on purpose: once pgjdbc switches to a
+     * server-side prepared statement, Postgres may pick a generic plan that joins and sorts
+     * before filtering on the tsquery. The date bounds sit inside the CTE, so only the monthly
+     * partitions of the range are searched (pruned at executor start); in each one the planner
+     * uses the GIN index or idx_expenses_user_date + filter, both bounded by the user's rows
+     * of that month.
+     */
+    @Query(value = """
+    with matches as materialized (
+      select e.* from expenses e
+      where e.user_id = :userId
+        and e.expense_date between :from and :to
+        and e.search_vector @@ to_tsquery('simple', :tsQuery)
+    )
+    select m.id, m.amount, m.currency, m.expense_date as expenseDate, m.merchant, m.note,
+           c.id as categoryId, c.name as categoryName
+    from matches m
+    join categories c on c.id = m.category_id
+    where (cast(:categoryId as uuid) is null or m.category_id = :categoryId)
+      and (cast(:min as numeric) is null or m.amount >= :min)
+      and (cast(:max as numeric) is null or m.amount <= :max)
+    order by ts_rank(m.search_vector, to_tsquery('simple', :tsQuery)) desc,
+             m.expense_date desc,
+             m.id desc
+    """, countQuery = """
+    with matches as materialized (
+      select e.category_id, e.amount from expenses e
+      where e.user_id = :userId
+        and e.expense_date between :from and :to
+        and e.search_vector @@ to_tsquery('simple', :tsQuery)
+    )
+    select count(*) from matches m
+    where (cast(:categoryId as uuid) is null or m.category_id = :categoryId)
+      and (cast(:min as numeric) is null or m.amount >= :min)
+      and (cast(:max as numeric) is null or m.amount <= :max)
+    """, nativeQuery = true)
+        Page<ExpenseDtos.ExpenseResponse> searchText(
+                @Param("userId") UUID userId,
+                @Param("from") LocalDate from,
+                @Param("to") LocalDate to,
+                @Param("categoryId") UUID categoryId,
+                @Param("min") BigDecimal min,
+                @Param("max") BigDecimal max,
+                @Param("tsQuery") String tsQuery,
+                Pageable pageable
+        );
+
+    /**
+     * Keyset variant of {@link #search}: walks idx_expenses_user_date in (expense_date desc, id desc)
+     * order without OFFSET nor count query. The caller clamps :to to the cursor date, so the
+     * cursor condition only has to break ties between rows sharing that date.
+     * <p>
+     * Text matching is the one of {@link #searchText} (same prefix tsquery, null = no text
+     * filter), applied as a filter along the date walk: the page stops at :limit rows.
+     */
+    @Query(value = """
+    select e.id, e.amount, e.currency, e.expense_date as expenseDate, e.merchant, e.note,
+           c.id as categoryId, c.name as categoryName
+    from expenses e
+    join categories c on c.id = e.category_id
+    where e.user_id = :userId
+      and e.expense_date between :from and :to
+      and (cast(:categoryId as uuid) is null or e.category_id = :categoryId)
+      and (cast(:min as numeric) is null or e.amount >= :min)
+      and (cast(:max as numeric) is null or e.amount <= :max)
+      and (cast(:tsQuery as text) is null or e.search_vector @@ to_tsquery('simple', cast(:tsQuery as text)))
+      and (cast(:cursorId as uuid) is null or e.expense_date < :to or e.id < :cursorId)
+    order by e.expense_date desc, e.id desc
+    """, nativeQuery = true)
+        List<ExpenseDtos.ExpenseResponse> searchAfter(
+                @Param("userId") UUID userId,
+                @Param("from") LocalDate from,
+                @Param("to") LocalDate to,
+                @Param("categoryId") UUID categoryId,
+                @Param("min") BigDecimal min,
+                @Param("max") BigDecimal max,
+                @Param("tsQuery") String tsQuery,
+                @Param("cursorId") UUID cursorId,
+                Limit limit
+        );
+
+    @Query(value = """
+    select count(*) from expenses e
+    where e.user_id = :userId
+      and e.expense_date between :from and :to
+      and (cast(:categoryId as uuid) is null or e.category_id = :categoryId)
+      and (cast(:min as numeric) is null or e.amount >= :min)
+      and (cast(:max as numeric) is null or e.amount <= :max)
+      and (cast(:tsQuery as text) is null or e.search_vector @@ to_tsquery('simple', cast(:tsQuery as text)))
+    """, nativeQuery = true)
+        long countSearch(
+                @Param("userId") UUID userId,
+                @Param("from") LocalDate from,
+                @Param("to") LocalDate to,
+                @Param("categoryId") UUID categoryId,
+                @Param("min") BigDecimal min,
+                @Param("max") BigDecimal max,
+                @Param("tsQuery") String tsQuery
+        );
+
+    /**
+     * Export rows as DTOs (nothing lands in the persistence context), read through a
+     * server-side cursor: PostgreSQL honours the fetch size inside a transaction only,
+     * so the caller must consume the stream in a (read-only) transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    select new com.yassine.expensetracker.expense.ExpenseDtos$ExpenseResponse(
+      e.id, e.amount, e.currency, e.expenseDate, e.merchant, e.note, c.id, c.name
+    )
+    from Expense e
+    join e.category c
+    where e.user.id = :userId
+      and e.expenseDate between :from and :to
+    order by e.expenseDate, e.id
+    """)
+        Stream<ExpenseDtos.ExpenseResponse> streamForExport(
+                @Param("userId") UUID userId,
+                @Param("from") LocalDate from,
+                @Param("to") LocalDate to
+        );
+
     @Query("""
     select
       coalesce(sum(e.amount), 0) as totalAmount,
-      count(e.id) as totalCount
+      count(*) as totalCount
     from Expense e
     where e.user.id = :userId
       and e.expenseDate between :from and :to
@@ -57,4 +215,88 @@ public interface ExpenseRepository extends JpaRepository<Expense, UUID> {
                 @Param("to") LocalDate to
         );
 
+    /** Row returned by {@link #updateOwned}: the new values plus the previous ones the rollup needs. */
+    interface UpdatedView {
+        UUID getId();
+        BigDecimal getAmount();
+        String getCurrency();
+        LocalDate getExpenseDate();
+        String getMerchant();
+        String getNote();
+        LocalDate getOldExpenseDate();
+        UUID getOldCategoryId();
+        BigDecimal getOldAmount();
+    }
+
+    /** Row returned by {@link #deleteOwned}. */
+    interface DeletedView {
+        LocalDate getExpenseDate();
+        UUID getCategoryId();
+        BigDecimal getAmount();
+    }
+
+    /*
+     * updateOwned / deleteOwned: the ownership check and the write in one round trip, empty when
+     * the expense does not exist or belongs to someone else. Nothing goes through the persistence
+     * context: don't mix with a loaded Expense in the same transaction.
+     *
+     * The API only gives the id, not the expense_date: these two are the only statements that
+     * cannot be pruned, one PK probe per partition. Every read path carries a date range.
+     */
+
+    /**
+     * The sub-select in FROM sees the row as it was before the update (PostgreSQL 16 has no OLD
+     * in RETURNING) and locks it, so the old values returned for the rollup are the ones replaced.
+     * A new date in another month moves the row to its partition.
+     */
+    @Query(value = """
+    update expenses e
+    set category_id = :categoryId,
+        amount = :amount,
+        expense_date = :expenseDate,
+        merchant = :merchant,
+        note = :note,
+        updated_at = now()
+    from (
+      select id, expense_date, category_id, amount from expenses
+      where id = :id and user_id = :userId
+      for update
+    ) old
+    where e.id = old.id
+      and e.expense_date = old.expense_date
+    returning e.id, e.amount, e.currency, e.expense_date as expenseDate, e.merchant, e.note,
+              old.expense_date as oldExpenseDate, old.category_id as oldCategoryId, old.amount as oldAmount
+    """, nativeQuery = true)
+    Optional<UpdatedView> updateOwned(
+            @Param("id") UUID id,
+            @Param("userId") UUID userId,
+            @Param("categoryId") UUID categoryId,
+            @Param("amount") BigDecimal amount,
+            @Param("expenseDate") LocalDate expenseDate,
+            @Param("merchant") String merchant,
+            @Param("note") String note
+    );
+
+    @Query(value = """
+    delete from expenses
+    where id = :id and user_id = :userId
+    returning expense_date as expenseDate, category_id as categoryId, amount
+    """, nativeQuery = true)
+    Optional<DeletedView> deleteOwned(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    /** Creates the missing monthly partitions of expenses for [from, to] (see V8), returns how many. */
+    @Transactional
+    @Query(value = "select ensure_expense_partitions(:from, :to)", nativeQuery = true)
+    int ensurePartitions(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /** First day of each month having rows in expenses_default (no partition for it yet). */
+    @Query(value = """
+    select distinct cast(date_trunc('month', expense_date) as date)
+    from expenses_default
+    order by 1
+    """, nativeQuery = true)
+    List<LocalDate> monthsInDefaultPartition();
+
+    @Query(value = "select count(*) from expenses_default", nativeQuery = true)
+    long countDefaultPartition();
 }
@@ -2,57 +2,68 @@ package com.yassine.expensetracker.expense;
 
 import com.yassine.expensetracker.category.Category;
 import com.yassine.expensetracker.category.CategoryRepository;
+import com.yassine.expensetracker.common.CursorPageResponse;
 import com.yassine.expensetracker.common.PageResponse;
+import com.yassine.expensetracker.common.SpendDataChangedEvent;
+import com.yassine.expensetracker.dashboard.SpendRollupRepository;
 import com.yassine.expensetracker.expense.ExpenseDtos.*;
-import com.yassine.expensetracker.user.User;
 import com.yassine.expensetracker.user.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class ExpenseService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+    static final int MAX_SEARCH_TERMS = 8;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final SpendRollupRepository spendRollupRepository;
+    private final ApplicationEventPublisher events;
 
     public ExpenseService(ExpenseRepository expenseRepository,
                           CategoryRepository categoryRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          SpendRollupRepository spendRollupRepository,
+                          ApplicationEventPublisher events) {
         this.expenseRepository = expenseRepository;
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.spendRollupRepository = spendRollupRepository;
+        this.events = events;
     }
 
     @Transactional(readOnly = true)
     public List<ExpenseResponse> list(UUID userId, LocalDate from, LocalDate to) {
-        return expenseRepository
-                .findByUserIdAndExpenseDateBetweenOrderByExpenseDateDesc(
-                        userId, from, to
-                )
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        return expenseRepository.list(userId, from, to);
     }
 
     @Transactional
     public ExpenseResponse create(UUID userId, CreateExpenseRequest req) {
+        // la catégorie est cherchée avec son propriétaire : elle prouve aussi que l'utilisateur existe
         Category category = categoryRepository
                 .findByIdAndUserId(req.categoryId(), userId)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
-
         Expense e = new Expense();
-        e.setUser(user);
+        e.setUser(userRepository.getReferenceById(userId));
         e.setCategory(category);
         e.setAmount(req.amount());
         e.setExpenseDate(req.expenseDate());
@@ -60,48 +71,62 @@ public class ExpenseService {
         e.setNote(req.note());
 
         expenseRepository.save(e);
-        return toResponse(e);
+        addToRollup(userId, e.getExpenseDate(), category.getId(), e.getAmount(), 1);
+        events.publishEvent(new SpendDataChangedEvent(userId));
+        return ExpenseMapper.toResponse(e);
     }
 
     @Transactional
     public ExpenseResponse update(UUID userId, UUID expenseId, UpdateExpenseRequest req) {
-        Expense e = expenseRepository.findById(expenseId)
-                .filter(x -> x.getUser().getId().equals(userId))
-                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
-
         Category category = categoryRepository
                 .findByIdAndUserId(req.categoryId(), userId)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found"));
 
-        e.setCategory(category);
-        e.setAmount(req.amount());
-        e.setExpenseDate(req.expenseDate());
-        e.setMerchant(req.merchant());
-        e.setNote(req.note());
+        // contrôle du propriétaire + écriture en une seule requête
+        ExpenseRepository.UpdatedView row = expenseRepository.updateOwned(
+                        expenseId, userId, category.getId(),
+                        req.amount(), req.expenseDate(), req.merchant(), req.note())
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
 
-        return toResponse(e);
+        LocalDate oldDate = row.getOldExpenseDate();
+        UUID oldCategoryId = row.getOldCategoryId();
+        BigDecimal oldAmount = row.getOldAmount();
+
+        if (sameRollupBucket(oldDate, req.expenseDate()) && oldCategoryId.equals(category.getId())) {
+            addToRollup(userId, oldDate, oldCategoryId, req.amount().subtract(oldAmount), 0);
+        } else {
+            addToRollup(userId, oldDate, oldCategoryId, oldAmount.negate(), -1);
+            addToRollup(userId, req.expenseDate(), category.getId(), req.amount(), 1);
+        }
+        events.publishEvent(new SpendDataChangedEvent(userId));
+
+        return new ExpenseResponse(
+                row.getId(),
+                row.getAmount(),
+                row.getCurrency(),
+                row.getExpenseDate(),
+                row.getMerchant(),
+                row.getNote(),
+                category.getId(),
+                category.getName()
+        );
     }
 
     @Transactional
     public void delete(UUID userId, UUID expenseId) {
-        Expense e = expenseRepository.findById(expenseId)
-                .filter(x -> x.getUser().getId().equals(userId))
+        ExpenseRepository.DeletedView row = expenseRepository.deleteOwned(expenseId, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
 
-        expenseRepository.delete(e);
+        addToRollup(userId, row.getExpenseDate(), row.getCategoryId(), row.getAmount().negate(), -1);
+        events.publishEvent(new SpendDataChangedEvent(userId));
     }
 
-    private ExpenseResponse toResponse(Expense e) {
-        return new ExpenseResponse(
-                e.getId(),
-                e.getAmount(),
-                e.getCurrency(),
-                e.getExpenseDate(),
-                e.getMerchant(),
-                e.getNote(),
-                e.getCategory().getId(),
-                e.getCategory().getName()
-        );
+    private void addToRollup(UUID userId, LocalDate date, UUID categoryId, BigDecimal amount, long count) {
+        spendRollupRepository.add(userId, date.withDayOfMonth(1), categoryId, amount, count);
+    }
+
+    private static boolean sameRollupBucket(LocalDate a, LocalDate b) {
+        return a.getYear() == b.getYear() && a.getMonth() == b.getMonth();
     }
 
     @Transactional(readOnly = true)
@@ -116,14 +141,17 @@ public class ExpenseService {
             Pageable pageable
     ) {
 
-        String qPattern = (q == null || q.isBlank())
-                ? null
-                : "%" + q.trim().toLowerCase() + "%";
-
-
-        Page<ExpenseResponse> page = expenseRepository
-                .search(userId, from, to, categoryId, min, max, qPattern, pageable)
-                .map(this::toResponse);
+        // texte libre -> index full-text, trié par pertinence : le tri demandé (le front envoie
+        // toujours expenseDate,desc) est ignoré, la date départage déjà les ex aequo
+        String tsQuery = toPrefixTsQuery(q);
+        if (tsQuery == null && hasText(q)) {
+            // "!!!", "€"... : aucun mot cherchable, donc aucun résultat (et pas de filtre ignoré)
+            return new PageResponse<>(List.of(), pageable.getPageNumber(), pageable.getPageSize(), 0, 0);
+        }
+        Page<ExpenseResponse> page = (tsQuery != null)
+                ? expenseRepository.searchText(userId, from, to, categoryId, min, max, tsQuery,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                : expenseRepository.search(userId, from, to, categoryId, min, max, pageable);
 
         return new PageResponse<>(
                 page.getContent(),
@@ -134,10 +162,81 @@ public class ExpenseService {
         );
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ExpenseResponse> searchAfter(
+            UUID userId,
+            LocalDate from,
+            LocalDate to,
+            UUID categoryId,
+            BigDecimal min,
+            BigDecimal max,
+            String q,
+            String cursor,
+            int size,
+            boolean includeTotal
+    ) {
+        if (size < 1) {
+            throw new IllegalArgumentException("'size' must be >= 1");
+        }
+        int pageSize = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        String tsQuery = toPrefixTsQuery(q);
+
+        ExpenseCursor after = (cursor == null || cursor.isBlank()) ? null : ExpenseCursor.decode(cursor);
+        if (tsQuery == null && hasText(q)) {
+            return new CursorPageResponse<>(List.of(), pageSize, null, includeTotal ? 0L : null);
+        }
+
+        // the cursor date becomes the upper bound of the index range scan
+        boolean seek = after != null && !after.expenseDate().isAfter(to);
+        LocalDate upper = seek ? after.expenseDate() : to;
+
+        // one extra row tells us whether there is a next page, without a count query
+        List<ExpenseResponse> rows = expenseRepository.searchAfter(
+                userId, from, upper, categoryId, min, max, tsQuery,
+                seek ? after.id() : null,
+                Limit.of(pageSize + 1)
+        );
+
+        boolean hasNext = rows.size() > pageSize;
+        List<ExpenseResponse> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasNext ? ExpenseCursor.of(pageRows.getLast()).encode() : null;
+        Long totalItems = includeTotal
+                ? expenseRepository.countSearch(userId, from, to, categoryId, min, max, tsQuery)
+                : null;
+
+        return new CursorPageResponse<>(
+                pageRows,
+                pageSize,
+                nextCursor,
+                totalItems
+        );
+    }
+
     @Transactional(readOnly = true)
     public ExpenseSummaryResponse summary(UUID userId, LocalDate from, LocalDate to) {
         var view = expenseRepository.summary(userId, from, to);
         return new ExpenseSummaryResponse(view.getTotalAmount(), view.getTotalCount());
     }
 
-}
\ No newline at end of file
+    /**
+     * "Carre  four!" -> "carre:* & four:*": every word must match as a prefix.
+     * Only letters/digits survive, so user input can never inject tsquery operators.
+     * Null when q has no searchable word.
+     */
+    static String toPrefixTsQuery(String q) {
+        if (q == null || q.isBlank()) return null;
+
+        String tsQuery = Arrays.stream(NON_WORD.split(q.toLowerCase(Locale.ROOT)))
+                .filter(w -> !w.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(w -> w + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
+
+    private static boolean hasText(String q) {
+        return q != null && !q.isBlank();
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.yassine.expensetracker.mail;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Entry point for sending emails from business code: the message is stored in the
+ * caller's transaction (sent only if it commits) and delivered by {@link EmailOutboxDispatcher},
+ * so no request thread nor DB connection ever waits on SMTP.
+ */
+@Service
+public class EmailOutbox {
+
+    private final EmailOutboxRepository repository;
+
+    public EmailOutbox(EmailOutboxRepository repository) {
+        this.repository = repository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String to, String subject, String htmlBody) {
+        repository.save(new EmailOutboxMessage(to, subject, htmlBody));
+    }
+}
@@ -0,0 +1,106 @@
+package com.yassine.expensetracker.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Drains email_outbox in the background.
+ * <p>
+ * Each round claims a batch in a short transaction (attempts++ and a lease on next_attempt_at),
+ * then sends with no transaction nor connection held, then records the outcome per message.
+ * Failures are retried with exponential backoff up to max-attempts; a crash mid-send only
+ * delays the message until its lease expires (at-least-once delivery).
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.outbox.dispatcher-enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final EmailOutboxRepository repository;
+    private final EmailSender sender;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration lease;
+
+    public EmailOutboxDispatcher(
+            EmailOutboxRepository repository,
+            EmailSender sender,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.mail.outbox.batch-size:20}") int batchSize,
+            @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.mail.outbox.backoff-seconds:30}") long backoffSeconds,
+            @Value("${app.mail.outbox.lease-seconds:300}") long leaseSeconds
+    ) {
+        this.repository = repository;
+        this.sender = sender;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = Duration.ofSeconds(backoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.mail.outbox.poll-ms:2000}",
+            fixedDelayString = "${app.mail.outbox.poll-ms:2000}"
+    )
+    public void dispatch() {
+        List<Claimed> batch;
+        do {
+            batch = claimBatch();
+            for (Claimed m : batch) {
+                deliver(m);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private List<Claimed> claimBatch() {
+        return tx.execute(status -> {
+            Instant now = Instant.now();
+            return repository.lockDue(now, batchSize).stream()
+                    .map(m -> {
+                        m.claim(now, lease);
+                        return new Claimed(m.getId(), m.getRecipient(), m.getSubject(), m.getHtmlBody(), m.getAttempts());
+                    })
+                    .toList();
+        });
+    }
+
+    private void deliver(Claimed m) {
+        try {
+            sender.send(m.recipient(), m.subject(), m.htmlBody());
+            tx.executeWithoutResult(status ->
+                    repository.findById(m.id()).ifPresent(msg -> msg.markSent(Instant.now())));
+        } catch (RuntimeException ex) {
+            // pas de destinataire dans les logs : l'id suffit à retrouver la ligne
+            log.warn("Email {} failed (attempt {}/{}): {}", m.id(), m.attempts(), maxAttempts, ex.toString());
+            tx.executeWithoutResult(status ->
+                    repository.findById(m.id()).ifPresent(msg ->
+                            msg.markFailed(ex.toString(), Instant.now(), backoffFor(m.attempts()), maxAttempts)));
+        }
+    }
+
+    /** backoff, 2x backoff, 4x backoff... capped at one hour. */
+    Duration backoffFor(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration d = backoff.multipliedBy(1L << shift);
+        return d.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : d;
+    }
+
+    private record Claimed(UUID id, String recipient, String subject, String htmlBody, int attempts) {}
+}
@@ -0,0 +1,95 @@
+package com.yassine.expensetracker.mail;
+
+import com.yassine.expensetracker.common.TimeOrderedUuidGenerator;
+import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "email_outbox")
+public class EmailOutboxMessage {
+
+    public enum Status { PENDING, SENT, FAILED }
+
+    @Id
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    // null once the message is SENT or FAILED: a reset email carries a live link in clear text
+    @Column(name = "html_body", columnDefinition = "text")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt = Instant.now();
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    protected EmailOutboxMessage() {}
+
+    public EmailOutboxMessage(String recipient, String subject, String htmlBody) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.htmlBody = htmlBody;
+    }
+
+    /** Counts the attempt and hides the row from other pollers until the lease ends. */
+    public void claim(Instant now, Duration lease) {
+        attempts++;
+        nextAttemptAt = now.plus(lease);
+    }
+
+    public void markSent(Instant now) {
+        status = Status.SENT;
+        sentAt = now;
+        lastError = null;
+        htmlBody = null;
+    }
+
+    /**
+     * Schedules a retry after {@code backoff}, or gives up once {@code maxAttempts} is reached
+     * (the body is dropped then, it will never be sent).
+     */
+    public void markFailed(String error, Instant now, Duration backoff, int maxAttempts) {
+        lastError = error;
+        if (attempts >= maxAttempts) {
+            status = Status.FAILED;
+            htmlBody = null;
+        } else {
+            nextAttemptAt = now.plus(backoff);
+        }
+    }
+
+    public UUID getId() { return id; }
+    public String getRecipient() { return recipient; }
+    public String getSubject() { return subject; }
+    public String getHtmlBody() { return htmlBody; }
+    public Status getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getSentAt() { return sentAt; }
+}
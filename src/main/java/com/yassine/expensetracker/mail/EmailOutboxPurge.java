@@ -0,0 +1,68 @@
+package com.yassine.expensetracker.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deletes the SENT / FAILED email_outbox rows older than app.mail.outbox.retention-hours. PENDING
+ * rows are never touched, whatever their age.
+ * <p>
+ * Same shape as the token purge: batches of batch-size rows, one short transaction each, until a
+ * batch comes back short.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.outbox.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxPurge {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxPurge.class);
+
+    private final EmailOutboxRepository repository;
+    private final Duration retention;
+    private final int batchSize;
+
+    private final LongAdder purged = new LongAdder();
+
+    public EmailOutboxPurge(
+            EmailOutboxRepository repository,
+            @Value("${app.mail.outbox.retention-hours:168}") long retentionHours,
+            @Value("${app.mail.outbox.purge.batch-size:1000}") int batchSize
+    ) {
+        this.repository = repository;
+        this.retention = Duration.ofHours(retentionHours);
+        this.batchSize = batchSize;
+    }
+
+    /** Returns the number of rows deleted by this run. */
+    @Scheduled(cron = "${app.mail.outbox.purge.cron:0 45 * * * *}")
+    public long purge() {
+        long start = System.nanoTime();
+        Instant cutoff = Instant.now().minus(retention);
+
+        long total = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteFinishedBatch(cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        purged.add(total);
+        if (total > 0) {
+            log.info("Purged {} sent/failed email(s) in {} ms",
+                    total, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        return total;
+    }
+
+    /** Rows deleted since startup. */
+    public long purged() {
+        return purged.sum();
+    }
+}
@@ -0,0 +1,50 @@
+package com.yassine.expensetracker.mail;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, UUID> {
+
+    /**
+     * Due messages, row-locked for the current transaction. SKIP LOCKED lets several
+     * app instances poll the same table without handing out a message twice.
+     */
+    @Query(value = """
+        select * from email_outbox
+        where status = 'PENDING'
+          and next_attempt_at <= :now
+        order by next_attempt_at
+        limit :limit
+        for update skip locked
+    """, nativeQuery = true)
+    List<EmailOutboxMessage> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Purge (EmailOutboxPurge): one bounded batch of SENT / FAILED messages created before the cutoff.
+     * Only email_outbox is touched, the second-level cache regions are left alone.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "email_outbox"))
+    @Query(value = """
+        delete from email_outbox
+         where id in (
+           select id from email_outbox
+            where status <> 'PENDING'
+              and created_at < :cutoff
+            limit :batchSize
+            for update skip locked
+         )
+    """, nativeQuery = true)
+    int deleteFinishedBatch(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
+}
@@ -1,4 +1,4 @@
-package com.yassine.expensetracker.security.reset;
+package com.yassine.expensetracker.mail;
 
 public interface EmailSender {
     void send(String to, String subject, String htmlBody);
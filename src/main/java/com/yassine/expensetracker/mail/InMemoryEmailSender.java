@@ -0,0 +1,40 @@
+package com.yassine.expensetracker.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local stand-in for {@link SmtpEmailSender} (app.mail.transport=memory): keeps the last
+ * messages in memory and logs them, so dev and tests work without any mail relay.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "memory")
+public class InMemoryEmailSender implements EmailSender {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryEmailSender.class);
+    private static final int MAX_KEPT = 100;
+
+    public record SentEmail(String to, String subject, String htmlBody) {}
+
+    private final List<SentEmail> sent = new ArrayList<>();
+
+    @Override
+    public synchronized void send(String to, String subject, String htmlBody) {
+        if (sent.size() == MAX_KEPT) sent.removeFirst();
+        sent.add(new SentEmail(to, subject, htmlBody));
+        log.info("Email to {} not sent (memory transport): {}", to, subject);
+    }
+
+    public synchronized List<SentEmail> sent() {
+        return List.copyOf(sent);
+    }
+
+    public synchronized void clear() {
+        sent.clear();
+    }
+}
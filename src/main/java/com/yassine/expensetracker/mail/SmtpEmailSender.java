@@ -1,27 +1,47 @@
-package com.yassine.expensetracker.security.reset;
+package com.yassine.expensetracker.mail;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 @Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "smtp", matchIfMissing = true)
 public class SmtpEmailSender implements EmailSender {
 
     private final JavaMailSender mailSender;
     private final String from;
+    // SMTP round trip, outcome = success | failure
+    private final Timer sent;
+    private final Timer failed;
 
     public SmtpEmailSender(
             JavaMailSender mailSender,
+            MeterRegistry meterRegistry,
             @Value("${app.mail.from}") String from
     ) {
         this.mailSender = mailSender;
         this.from = from;
+        this.sent = timer(meterRegistry, "success");
+        this.failed = timer(meterRegistry, "failure");
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder("app.mail.send")
+                .description("SMTP send of one email")
+                .tag("outcome", outcome)
+                .register(registry);
     }
 
     @Override
     public void send(String to, String subject, String htmlBody) {
+        long start = System.nanoTime();
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
@@ -32,7 +52,9 @@ public class SmtpEmailSender implements EmailSender {
             helper.setText(htmlBody, true);
 
             mailSender.send(message);
+            sent.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         } catch (Exception e) {
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             throw new IllegalStateException("Failed to send email", e);
         }
     }
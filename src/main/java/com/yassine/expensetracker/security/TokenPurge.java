@@ -0,0 +1,100 @@
+package com.yassine.expensetracker.security;
+
+import com.yassine.expensetracker.security.refresh.RefreshTokenRepository;
+import com.yassine.expensetracker.security.reset.PasswordResetTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Deletes refresh tokens expired or revoked for longer than the retention, and expired password
+ * reset tokens. Nothing else ever removes them: every login and refresh adds a row.
+ * <p>
+ * Deletes go by batches of batch-size rows, one short transaction each, until a batch comes back
+ * short: no long lock, no huge transaction after a backlog. Keeping rows a while after they stop
+ * being valid lets a replayed refresh cookie still be reported as "revoked" rather than "unknown".
+ */
+@Component
+@ConditionalOnProperty(name = "app.tokens.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class TokenPurge {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenPurge.class);
+
+    public record Run(Instant finishedAt, long refreshTokens, long resetTokens, Duration duration) {}
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final PasswordResetTokenRepository resetTokenRepository;
+    private final Duration retention;
+    private final int batchSize;
+
+    private final LongAdder refreshTokensPurged = new LongAdder();
+    private final LongAdder resetTokensPurged = new LongAdder();
+    private final AtomicReference<Run> lastRun = new AtomicReference<>();
+
+    public TokenPurge(
+            RefreshTokenRepository refreshTokenRepository,
+            PasswordResetTokenRepository resetTokenRepository,
+            @Value("${app.tokens.purge.retention-hours:24}") long retentionHours,
+            @Value("${app.tokens.purge.batch-size:1000}") int batchSize
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.resetTokenRepository = resetTokenRepository;
+        this.retention = Duration.ofHours(retentionHours);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.tokens.purge.cron:0 15 * * * *}")
+    public Run purge() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(retention);
+
+        long refresh = drain(() -> refreshTokenRepository.deleteExpiredBatch(cutoff, batchSize))
+                + drain(() -> refreshTokenRepository.deleteRevokedBatch(cutoff, batchSize));
+        long reset = drain(() -> resetTokenRepository.deleteExpiredBatch(cutoff, batchSize));
+
+        Run run = new Run(Instant.now(), refresh, reset, Duration.ofNanos(System.nanoTime() - start));
+        refreshTokensPurged.add(refresh);
+        resetTokensPurged.add(reset);
+        lastRun.set(run);
+
+        if (refresh + reset > 0) {
+            log.info("Purged {} refresh token(s) and {} password reset token(s) in {} ms",
+                    refresh, reset, run.duration().toMillis());
+        }
+        return run;
+    }
+
+    private long drain(IntSupplier batch) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = batch.getAsInt();
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+
+    /** Last completed run, null before the first one. */
+    public Run lastRun() {
+        return lastRun.get();
+    }
+
+    /** Rows deleted since startup. */
+    public long refreshTokensPurged() {
+        return refreshTokensPurged.sum();
+    }
+
+    public long resetTokensPurged() {
+        return resetTokensPurged.sum();
+    }
+}
@@ -3,21 +3,30 @@ package com.yassine.expensetracker.security.auth;
 import com.yassine.expensetracker.security.auth.dto.AuthResponse;
 import com.yassine.expensetracker.security.auth.dto.LoginRequest;
 import com.yassine.expensetracker.security.auth.dto.RegisterRequest;
+import com.yassine.expensetracker.security.jwt.AccessTokensRevokedEvent;
 import com.yassine.expensetracker.security.jwt.JwtService;
 import com.yassine.expensetracker.security.refresh.RefreshTokenService;
 import com.yassine.expensetracker.user.User;
 import com.yassine.expensetracker.user.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * register / login / changePassword hash outside any transaction: a hash can wait for a slot in
+ * BoundedPasswordEncoder, and must not hold a pool connection meanwhile. Only the DB writes run
+ * in {@link #tx}.
+ */
 @Service
 public class AuthService {
 
@@ -29,6 +38,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenService refreshTokenService;
     private final AuthCookieProps cookieProps;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
 
     public AuthService(
             UserRepository userRepository,
@@ -36,7 +47,9 @@ public class AuthService {
             AuthenticationManager authenticationManager,
             PasswordEncoder passwordEncoder,
             RefreshTokenService refreshTokenService,
-            AuthCookieProps cookieProps
+            AuthCookieProps cookieProps,
+            ApplicationEventPublisher events,
+            PlatformTransactionManager transactionManager
     ) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
@@ -44,25 +57,30 @@ public class AuthService {
         this.passwordEncoder = passwordEncoder;
         this.refreshTokenService = refreshTokenService;
         this.cookieProps = cookieProps;
+        this.events = events;
+        this.tx = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
     public AuthResult register(RegisterRequest req) {
         String email = normalizeEmail(req.email());
+        String passwordHash = passwordEncoder.encode(req.password());
 
-        if (userRepository.existsByEmail(email)) {
-            throw new IllegalArgumentException("Email already used");
-        }
+        return tx.execute(status -> {
+            if (userRepository.existsByEmail(email)) {
+                throw new IllegalArgumentException("Email already used");
+            }
 
-        User u = new User();
-        u.setEmail(email);
-        u.setPasswordHash(passwordEncoder.encode(req.password()));
-        userRepository.save(u);
+            User u = new User();
+            u.setEmail(email);
+            u.setPasswordHash(passwordHash);
+            userRepository.save(u);
 
-        return buildAuthResult(u.getId(), u.getEmail(), false);
+            return buildAuthResult(u.getId(), u.getEmail(), false);
+        });
     }
 
-    @Transactional(readOnly = true)
+    // un hash d'un ancien algorithme / coût est réécrit pendant authenticate
+    // (userDetailsPasswordService, dans sa propre transaction)
     public AuthResult login(LoginRequest req) {
         String email = normalizeEmail(req.email());
 
@@ -70,10 +88,12 @@ public class AuthService {
                 new UsernamePasswordAuthenticationToken(email, req.password())
         );
 
-        User u = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
+        return tx.execute(status -> {
+            User u = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
 
-        return buildAuthResult(u.getId(), u.getEmail(), req.rememberMe());
+            return buildAuthResult(u.getId(), u.getEmail(), req.rememberMe());
+        });
     }
 
     @Transactional
@@ -101,19 +121,30 @@ public class AuthService {
         );
     }
 
-    @Transactional
     public void changePassword(UUID userId, String currentPassword, String newPassword) {
-        User user = userRepository.findById(userId)
+        String checkedHash = userRepository.findById(userId)
+                .map(User::getPasswordHash)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+        if (!passwordEncoder.matches(currentPassword, checkedHash)) {
             throw new IllegalArgumentException("Invalid current password");
         }
-
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
-
-        refreshTokenService.revokeAllForUser(userId);
+        String newHash = passwordEncoder.encode(newPassword);
+
+        tx.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            // changé entre la vérification et l'écriture (autre changement, reset) : on refuse
+            if (!checkedHash.equals(user.getPasswordHash())) {
+                throw new IllegalArgumentException("Invalid current password");
+            }
+
+            user.setPasswordHash(newHash);
+            userRepository.save(user);
+
+            refreshTokenService.revokeAllForUser(userId);
+            events.publishEvent(new AccessTokensRevokedEvent(userId));
+        });
     }
 
     @Transactional
@@ -124,6 +155,7 @@ public class AuthService {
     @Transactional
     public void logoutEverywhere(UUID userId) {
         refreshTokenService.revokeAllForUser(userId);
+        events.publishEvent(new AccessTokensRevokedEvent(userId));
     }
 
     public ResponseCookie clearRefreshCookie() {
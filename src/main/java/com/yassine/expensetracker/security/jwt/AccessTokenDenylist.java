@@ -0,0 +1,50 @@
+package com.yassine.expensetracker.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yassine.expensetracker.security.auth.AuthService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Access tokens are not looked up in the DB, so revoking them (logout everywhere,
+ * password change) means remembering "reject tokens of this user issued before T".
+ * An entry only has to outlive the access token TTL, after which those tokens are expired anyway.
+ * In-process only: each instance learns about revocations made through it.
+ */
+@Component
+public class AccessTokenDenylist {
+
+    private final Cache<UUID, Instant> revokedBefore;
+
+    public AccessTokenDenylist(@Value("${app.jwt.denylist.max-size:100000}") long maxSize) {
+        this.revokedBefore = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(AuthService.ACCESS_TTL_SECONDS))
+                .build();
+    }
+
+    public void revokeAll(UUID userId) {
+        // iat has a one second resolution: truncating keeps tokens issued right after
+        // the revocation (e.g. login following a password change) valid
+        revokedBefore.put(userId, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    // après commit seulement : une transaction annulée ne déconnecte personne
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessTokensRevoked(AccessTokensRevokedEvent event) {
+        revokeAll(event.userId());
+    }
+
+    public boolean isRevoked(UUID userId, Instant issuedAt) {
+        Instant cutoff = revokedBefore.getIfPresent(userId);
+        if (cutoff == null) return false;
+        return issuedAt == null || issuedAt.isBefore(cutoff);
+    }
+}
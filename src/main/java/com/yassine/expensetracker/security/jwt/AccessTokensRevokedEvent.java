@@ -0,0 +1,9 @@
+package com.yassine.expensetracker.security.jwt;
+
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that revokes a user's sessions (logout everywhere, password
+ * change); AccessTokenDenylist applies it once that transaction commits.
+ */
+public record AccessTokensRevokedEvent(UUID userId) {}
@@ -1,12 +1,14 @@
 package com.yassine.expensetracker.security.jwt;
 
 import com.yassine.expensetracker.security.auth.AuthUser;
-import com.yassine.expensetracker.user.User;
 import com.yassine.expensetracker.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,60 +18,112 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Authenticates the Bearer access token. The token check only (not the rest of the chain) is timed
+ * as app.jwt.filter, tagged outcome = anonymous (no Bearer header) | authenticated | rejected.
+ */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    /** Routes under /api/auth that act on the caller's account, hence need the access token. */
+    public static final List<String> AUTHENTICATED_AUTH_PATHS = List.of("/api/auth/logout-all", "/api/auth/change-password");
+
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final AccessTokenDenylist denylist;
+    private final boolean stateless;
+    private final Timer anonymous;
+    private final Timer authenticated;
+    private final Timer rejected;
 
-    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthFilter(JwtService jwtService,
+                         UserRepository userRepository,
+                         AccessTokenDenylist denylist,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.jwt.stateless:true}") boolean stateless) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
+        this.denylist = denylist;
+        this.stateless = stateless;
+        this.anonymous = timer(meterRegistry, "anonymous");
+        this.authenticated = timer(meterRegistry, "authenticated");
+        this.rejected = timer(meterRegistry, "rejected");
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder("app.jwt.filter")
+                .description("Bearer access token check")
+                .tag("outcome", outcome)
+                .register(registry);
     }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
-        return path.startsWith("/api/auth/");
+        return path.startsWith("/api/auth/") && !AUTHENTICATED_AUTH_PATHS.contains(path);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
+        long start = System.nanoTime();
+        Timer outcome = authenticate(request);
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (outcome == rejected) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /** Sets the security context from the Bearer token, returns the timer of the outcome. */
+    private Timer authenticate(HttpServletRequest request) {
         String header = request.getHeader(HttpHeaders.AUTHORIZATION);
 
         if (header == null || !header.startsWith("Bearer ")) {
-            chain.doFilter(request, response);
-            return;
+            return anonymous;
         }
 
         String token = header.substring(7);
 
-        final UUID userId;
+        final JwtService.AccessClaims claims;
         try {
-            userId = jwtService.parseUserId(token);
+            claims = jwtService.parse(token);
         } catch (io.jsonwebtoken.JwtException | IllegalArgumentException e) {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
-            return;
+            return rejected;
         }
 
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
-            return;
+        if (denylist.isRevoked(claims.userId(), claims.issuedAt())) {
+            return rejected;
+        }
+
+        AuthUser principal = resolvePrincipal(claims);
+        if (principal == null) {
+            return rejected;
         }
 
         if (SecurityContextHolder.getContext().getAuthentication() == null) {
-            AuthUser principal = new AuthUser(user.getId(), user.getEmail());
             var auth = new UsernamePasswordAuthenticationToken(principal, null, List.of());
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(auth);
         }
-
-        chain.doFilter(request, response);
+        return authenticated;
     }
 
+    /**
+     * Stateless mode trusts the verified claims (the token is signed by us and carries the email),
+     * the DB is only hit for tokens without email claim or when app.jwt.stateless=false.
+     */
+    private AuthUser resolvePrincipal(JwtService.AccessClaims claims) {
+        if (stateless && claims.email() != null) {
+            return new AuthUser(claims.userId(), claims.email());
+        }
+        return userRepository.findById(claims.userId())
+                .map(user -> new AuthUser(user.getId(), user.getEmail()))
+                .orElse(null);
+    }
 }
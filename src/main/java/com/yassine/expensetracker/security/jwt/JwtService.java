@@ -1,5 +1,10 @@
 package com.yassine.expensetracker.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yassine.expensetracker.security.auth.AuthService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.UUID;
@@ -16,12 +22,27 @@ public class JwtService {
 
     private final SecretKey key;
 
-    public JwtService(@Value("${app.jwt.secret}") String secret) {
+    // immutable and thread-safe, built once instead of on every request
+    private final JwtParser parser;
+
+    // tokens already verified, so a client reusing its access token skips HMAC + JSON parsing
+    private final Cache<String, AccessClaims> verified;
+
+    public JwtService(
+            @Value("${app.jwt.secret}") String secret,
+            @Value("${app.jwt.verified-cache-size:10000}") long verifiedCacheSize
+    ) {
         byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
         if (bytes.length < 32) {
             throw new IllegalArgumentException("JWT secret must be at least 256 bits (32 bytes).");
         }
         this.key = Keys.hmacShaKeyFor(bytes);
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verified = Caffeine.newBuilder()
+                .executor(Runnable::run) // evict inline, so a size of 0 really disables the cache
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(AuthService.ACCESS_TTL_SECONDS))
+                .build();
     }
 
     public String generateToken(UUID userId, String email, long ttlSeconds) {
@@ -38,12 +59,42 @@ public class JwtService {
     }
 
     public UUID parseUserId(String token) {
-        String sub = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-        return UUID.fromString(sub);
+        return parse(token).userId();
+    }
+
+    /** Verifies the token and returns the claims the API relies on. email / issuedAt may be null on foreign tokens. */
+    public AccessClaims parse(String token) {
+        AccessClaims cached = verified.getIfPresent(token);
+        if (cached != null) {
+            if (cached.isValidAt(Instant.now())) {
+                return cached;
+            }
+            // expired since it was cached: let the parser raise the usual ExpiredJwtException
+            verified.invalidate(token);
+        }
+
+        AccessClaims claims = verify(token);
+        verified.put(token, claims);
+        return claims;
+    }
+
+    private AccessClaims verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+
+        Date iat = claims.getIssuedAt();
+        Date exp = claims.getExpiration();
+        return new AccessClaims(
+                UUID.fromString(claims.getSubject()),
+                claims.get("email", String.class),
+                iat != null ? iat.toInstant() : null,
+                exp != null ? exp.toInstant() : null
+        );
+    }
+
+    public record AccessClaims(UUID userId, String email, Instant issuedAt, Instant expiresAt) {
+
+        boolean isValidAt(Instant now) {
+            return expiresAt == null || now.isBefore(expiresAt);
+        }
     }
 }
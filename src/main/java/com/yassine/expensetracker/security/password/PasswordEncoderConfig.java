@@ -0,0 +1,76 @@
+package com.yassine.expensetracker.security.password;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Password hashing: algorithm and work factor come from configuration (the work factor
+ * calibrated at startup unless fixed), hashing runs on the bounded pool of BoundedPasswordEncoder.
+ * <p>
+ * Hashes are stored with their algorithm prefix ({bcrypt}..., {argon2}...). Hashes written before
+ * (bare bcrypt, no prefix) still match. A hash that is not in the configured algorithm / cost is
+ * re-encoded after the next successful login (UserDetailsPasswordService in SecurityConfig).
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${app.security.password.target-ms:250}") long targetMs,
+            @Value("${app.security.password.bcrypt-cost:0}") int bcryptCost,
+            @Value("${app.security.password.argon2-iterations:0}") int argon2Iterations,
+            @Value("${app.security.password.argon2-memory-kib:19456}") int argon2MemoryKib,
+            @Value("${app.security.password.threads:0}") int threads,
+            @Value("${app.security.password.queue-capacity:32}") int queueCapacity
+    ) {
+        String idForEncode = algorithm.trim().toLowerCase(Locale.ROOT);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        switch (idForEncode) {
+            case "bcrypt" -> {
+                int cost = bcryptCost > 0 ? bcryptCost : PasswordHashCalibration.bcryptCost(targetMs);
+                log.info("Password hashing: bcrypt cost {} ({})", cost, bcryptCost > 0 ? "configured" : "calibrated for " + targetMs + " ms");
+                encoders.put("bcrypt", new BCryptPasswordEncoder(cost));
+                encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+            }
+            case "argon2" -> {
+                int iterations = argon2Iterations > 0
+                        ? argon2Iterations
+                        : PasswordHashCalibration.argon2Iterations(targetMs, argon2MemoryKib);
+                log.info("Password hashing: argon2id {} KiB, {} iteration(s) ({})", argon2MemoryKib, iterations,
+                        argon2Iterations > 0 ? "configured" : "calibrated for " + targetMs + " ms");
+                encoders.put("argon2", new Argon2PasswordEncoder(
+                        ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, argon2MemoryKib, iterations));
+                encoders.put("bcrypt", new BCryptPasswordEncoder());
+            }
+            default -> throw new IllegalArgumentException(
+                    "app.security.password.algorithm must be bcrypt or argon2, got: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // hashes enregistrés avant l'ajout du préfixe {id}
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+
+        // par défaut la moitié des cœurs : l'autre moitié reste pour le reste de l'API
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity);
+    }
+}
@@ -0,0 +1,65 @@
+package com.yassine.expensetracker.security.password;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the work factor that makes one hash take about target-ms on this machine, measured at
+ * startup. Never goes below the previous fixed settings (bcrypt cost 10, Argon2 2 iterations): a
+ * slow host gets slower logins, not weaker hashes.
+ */
+final class PasswordHashCalibration {
+
+    static final int BCRYPT_MIN_COST = 10;
+    static final int BCRYPT_MAX_COST = 16;
+    static final int ARGON2_MIN_ITERATIONS = 2;
+    static final int ARGON2_MAX_ITERATIONS = 20;
+
+    // coût mesuré : assez bas pour que la calibration reste courte au démarrage
+    private static final int BCRYPT_PROBE_COST = 8;
+    private static final int SAMPLES = 3;
+
+    private PasswordHashCalibration() {}
+
+    static int bcryptCost(long targetMs) {
+        return bcryptCost(targetMs, cost -> medianNanos(new BCryptPasswordEncoder(cost), cost));
+    }
+
+    /** bcrypt doubles its work with each cost step: extrapolates from one measured cost. */
+    static int bcryptCost(long targetMs, IntToLongFunction nanosAtCost) {
+        double probeMs = nanosAtCost.applyAsLong(BCRYPT_PROBE_COST) / 1_000_000.0;
+        int cost = BCRYPT_PROBE_COST;
+        while (cost < BCRYPT_MAX_COST && probeMs * Math.pow(2, cost + 1 - BCRYPT_PROBE_COST) <= targetMs) {
+            cost++;
+        }
+        return Math.max(cost, BCRYPT_MIN_COST);
+    }
+
+    static int argon2Iterations(long targetMs, int memoryKib) {
+        return argon2Iterations(targetMs, iterations ->
+                medianNanos(new Argon2PasswordEncoder(16, 32, 1, memoryKib, iterations), iterations));
+    }
+
+    /** Argon2 time grows linearly with the iterations at a fixed memory size. */
+    static int argon2Iterations(long targetMs, IntToLongFunction nanosAtIterations) {
+        double oneMs = nanosAtIterations.applyAsLong(1) / 1_000_000.0;
+        int iterations = (int) Math.floor(targetMs / Math.max(oneMs, 0.001));
+        return Math.clamp(iterations, ARGON2_MIN_ITERATIONS, ARGON2_MAX_ITERATIONS);
+    }
+
+    private static long medianNanos(PasswordEncoder encoder, int workFactor) {
+        encoder.encode("calibration-warmup");
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-" + workFactor + "-" + i);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
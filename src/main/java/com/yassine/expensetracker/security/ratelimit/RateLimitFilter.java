@@ -0,0 +1,193 @@
+package com.yassine.expensetracker.security.ratelimit;
+
+import com.yassine.expensetracker.common.GlobalExceptionHandler.ApiError;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits the unauthenticated endpoints that cost a password hash or an email: login,
+ * register, forgot-password and reset-password. Runs in the security chain before JwtAuthFilter.
+ * <p>
+ * Two token buckets per request: one for the client IP, and one for the normalized email of the
+ * JSON body when the endpoint takes one (so spreading the attempts on an account over many IPs
+ * does not help). Either one empty -> 429 with Retry-After, nothing else runs. The body of those
+ * endpoints is read up front whatever its framing (Content-Length or chunked); past
+ * MAX_BODY_BYTES -> 413, so padding or chunking the JSON cannot skip the email bucket.
+ * <p>
+ * The client IP is request.getRemoteAddr(): behind a reverse proxy, set
+ * server.forward-headers-strategy so that it is the real client, not the proxy.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED = Set.of(
+            "/api/auth/login", "/api/auth/register", "/api/auth/forgot-password", "/api/auth/reset-password"
+    );
+    // reset-password prend un token, pas d'email
+    private static final Set<String> KEYED_BY_EMAIL = Set.of(
+            "/api/auth/login", "/api/auth/register", "/api/auth/forgot-password"
+    );
+    // un body d'auth fait quelques dizaines d'octets
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final RateLimiter byIp;
+    private final RateLimiter byEmail;
+
+    public RateLimitFilter(
+            JsonMapper jsonMapper,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${app.rate-limit.ip.refill-per-minute:10}") int ipRefillPerMinute,
+            @Value("${app.rate-limit.email.capacity:5}") int emailCapacity,
+            @Value("${app.rate-limit.email.refill-per-minute:1}") int emailRefillPerMinute,
+            @Value("${app.rate-limit.max-keys:100000}") int maxKeys
+    ) {
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.byIp = new RateLimiter("ip", ipCapacity, ipRefillPerMinute, maxKeys);
+        this.byEmail = new RateLimiter("email", emailCapacity, emailRefillPerMinute, maxKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !LIMITED.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        long now = System.nanoTime();
+        long wait = byIp.tryAcquire(request.getRemoteAddr(), now);
+
+        if (wait == 0 && KEYED_BY_EMAIL.contains(request.getServletPath())) {
+            CachedBodyRequest cached = CachedBodyRequest.of(request);
+            if (cached == null) {
+                // pas de clé email sans body lisible : on refuse plutôt que de laisser passer
+                error(response, HttpStatus.CONTENT_TOO_LARGE, "Request body too large");
+                return;
+            }
+            request = cached;
+            String email = email(cached.body);
+            if (email != null) {
+                wait = byEmail.tryAcquire(email, now);
+            }
+        }
+
+        if (wait > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            error(response, HttpStatus.TOO_MANY_REQUESTS, "Too many attempts, retry later");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /** Evicts the buckets that are full again. */
+    @Scheduled(
+            initialDelayString = "${app.rate-limit.evict-ms:60000}",
+            fixedDelayString = "${app.rate-limit.evict-ms:60000}"
+    )
+    public void evictIdle() {
+        long now = System.nanoTime();
+        byIp.evictIdle(now);
+        byEmail.evictIdle(now);
+    }
+
+    public List<RateLimiter> limiters() {
+        return List.of(byIp, byEmail);
+    }
+
+    // même normalisation qu'AuthService / PasswordResetService
+    private String email(byte[] body) {
+        try {
+            JsonNode email = jsonMapper.readTree(body).path("email");
+            if (!email.isString()) return null;
+            String normalized = email.asString().trim().toLowerCase(Locale.ROOT);
+            return normalized.isEmpty() ? null : normalized;
+        } catch (JacksonException e) {
+            // body invalide : la validation du contrôleur répondra 400
+            return null;
+        }
+    }
+
+    private void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(),
+                new ApiError(Instant.now(), status.value(), status.getReasonPhrase(), message));
+    }
+
+    /** Request whose (small) body was read up front, so the controller can read it again. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * Reads at most MAX_BODY_BYTES + 1 bytes, Content-Length or not (chunked). Null when the
+         * body is larger than MAX_BODY_BYTES.
+         */
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+                return null;
+            }
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            return body.length > MAX_BODY_BYTES ? null : new CachedBodyRequest(request, body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override public int read() { return in.read(); }
+                @Override public int read(byte[] b, int off, int len) { return in.read(b, off, len); }
+                @Override public boolean isFinished() { return in.available() == 0; }
+                @Override public boolean isReady() { return true; }
+                @Override public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
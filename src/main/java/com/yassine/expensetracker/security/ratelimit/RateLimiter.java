@@ -0,0 +1,76 @@
+package com.yassine.expensetracker.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One token bucket per key (client IP, normalized email...) for a named rule. Buckets are created
+ * on first use and dropped by {@link #evictIdle} once full again, so the map only holds the keys
+ * seen recently: a dropped bucket would be recreated full, exactly as it was (at worst, a bucket
+ * used at the very moment it is evicted grants its key one token more).
+ * <p>
+ * Keys are chosen by the client (any email will do), so the buckets live in a Caffeine cache
+ * bounded to maxKeys: past it, each insert evicts one entry in amortized O(1), no sweep on the
+ * request path. Eviction is frequency-based (W-TinyLFU): the one-shot keys of a flood of random
+ * emails go first, a key hit over and over (an account under attack) is kept.
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final int capacity;
+    private final long intervalNanos;
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param capacity        burst size
+     * @param refillPerMinute sustained rate
+     * @param maxKeys         hard cap on the buckets kept
+     */
+    public RateLimiter(String name, int capacity, int refillPerMinute, int maxKeys) {
+        if (capacity < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("rate limit '" + name + "': capacity and refill-per-minute must be >= 1");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.intervalNanos = Duration.ofMinutes(1).toNanos() / refillPerMinute;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                // éviction sur le thread appelant : la borne tient même sous un flot d'inserts
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /** Takes a token for the key: 0 if granted, otherwise the nanos to wait. */
+    public long tryAcquire(String key, long nowNanos) {
+        long wait = buckets.get(key, k -> new TokenBucket(capacity, intervalNanos)).tryTake(nowNanos);
+        (wait == 0 ? allowed : rejected).increment();
+        return wait;
+    }
+
+    /** Drops the buckets that are full again, returns how many. Scheduled, O(keys). */
+    public int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (Iterator<TokenBucket> it = buckets.asMap().values().iterator(); it.hasNext(); ) {
+            if (it.next().isFull(nowNanos)) {
+                it.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public String name() { return name; }
+    public long allowed() { return allowed.sum(); }
+    public long rejected() { return rejected.sum(); }
+    public long trackedKeys() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,41 @@
+package com.yassine.expensetracker.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of {@code capacity} tokens refilled one every {@code interval}, kept as a single
+ * "theoretical arrival time" (GCRA): the instant at which the bucket is full again. Taking a token
+ * pushes it one interval further, and is refused when it would land more than (capacity - 1)
+ * intervals ahead of now. One long updated by CAS: no lock, no refill timer.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(int capacity, long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = (capacity - 1) * intervalNanos;
+    }
+
+    /** Takes a token: 0 if granted, otherwise the nanos to wait before the next one. */
+    long tryTake(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long base = Math.max(current, nowNanos);
+            long wait = base - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Full again: forgetting the bucket changes nothing for its key. */
+    boolean isFull(long nowNanos) {
+        return fullAt.get() <= nowNanos;
+    }
+}
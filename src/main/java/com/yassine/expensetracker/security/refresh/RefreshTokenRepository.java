@@ -1,7 +1,10 @@
 package com.yassine.expensetracker.security.refresh;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -20,4 +23,69 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
            and rt.expiresAt > :now
     """)
     int revokeAllActiveByUserId(@Param("userId") UUID userId, @Param("now") Instant now);
+
+    /** Row returned by {@link #rotate}. */
+    interface RotatedView {
+        UUID getUserId();
+        Instant getExpiresAt();
+    }
+
+    /**
+     * Revokes the token and inserts its successor (same owner, same expiry) in one statement,
+     * empty when the token is unknown, already revoked or expired. The update locks the row: a
+     * concurrent rotation of the same token waits, then re-checks revoked_at and finds nothing.
+     */
+    @Query(value = """
+        with revoked as (
+          update refresh_tokens
+             set revoked_at = :now
+           where token_hash = :tokenHash
+             and revoked_at is null
+             and expires_at > :now
+          returning user_id, expires_at
+        )
+        insert into refresh_tokens (id, token_hash, user_id, expires_at, created_at)
+        select :newId, :newTokenHash, user_id, expires_at, :now from revoked
+        returning user_id as userId, expires_at as expiresAt
+    """, nativeQuery = true)
+    Optional<RotatedView> rotate(
+            @Param("tokenHash") String tokenHash,
+            @Param("newId") UUID newId,
+            @Param("newTokenHash") String newTokenHash,
+            @Param("now") Instant now
+    );
+
+    /*
+     * Purge (TokenPurge): one bounded batch per call, in its own transaction. Rows locked by a
+     * concurrent rotation are skipped, the next run gets them. The native-space hint keeps
+     * Hibernate from clearing the whole second-level / query cache after each batch.
+     */
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = """
+        delete from refresh_tokens
+         where id in (
+           select id from refresh_tokens
+            where expires_at < :cutoff
+            limit :batchSize
+            for update skip locked
+         )
+    """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = """
+        delete from refresh_tokens
+         where id in (
+           select id from refresh_tokens
+            where revoked_at < :cutoff
+            limit :batchSize
+            for update skip locked
+         )
+    """, nativeQuery = true)
+    int deleteRevokedBatch(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
 }
@@ -1,5 +1,6 @@
 package com.yassine.expensetracker.security.refresh;
 
+import com.yassine.expensetracker.common.TimeOrderedUuidGenerator;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -46,26 +47,21 @@ public class RefreshTokenService {
         }
 
         String hash = sha256Hex(rawToken);
-        RefreshToken existing = repo.findByTokenHash(hash)
-                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
-
-        if (existing.isRevoked()) {
-            throw new InvalidRefreshTokenException("Refresh token revoked");
-        }
-        if (existing.isExpired()) {
-            throw new InvalidRefreshTokenException("Refresh token expired");
-        }
-
-        existing.revoke();
-        repo.save(existing);
-
         String newRaw = generateRawToken();
-        String newHash = sha256Hex(newRaw);
 
-        RefreshToken rotated = new RefreshToken(newHash, existing.getUserId(), existing.getExpiresAt());
-        repo.save(rotated);
+        RefreshTokenRepository.RotatedView rotated = repo.rotate(
+                hash, TimeOrderedUuidGenerator.next(), sha256Hex(newRaw), Instant.now()
+        ).orElseThrow(() -> rejected(hash));
+
+        return new RotationResult(rotated.getUserId(), newRaw, rotated.getExpiresAt());
+    }
 
-        return new RotationResult(existing.getUserId(), newRaw, existing.getExpiresAt());
+    // chemin d'échec uniquement : relit le token pour garder un message précis
+    private InvalidRefreshTokenException rejected(String hash) {
+        return repo.findByTokenHash(hash)
+                .map(rt -> new InvalidRefreshTokenException(
+                        rt.isRevoked() ? "Refresh token revoked" : "Refresh token expired"))
+                .orElseGet(() -> new InvalidRefreshTokenException("Unknown refresh token"));
     }
 
     @Transactional
@@ -92,7 +88,7 @@ public class RefreshTokenService {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
-    private String sha256Hex(String value) {
+    static String sha256Hex(String value) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             byte[] digest = md.digest(value.getBytes(StandardCharsets.UTF_8));
@@ -102,7 +98,7 @@ public class RefreshTokenService {
         }
     }
 
-    private static String toHex(byte[] bytes) {
+    static String toHex(byte[] bytes) {
         StringBuilder sb = new StringBuilder(bytes.length * 2);
         for (byte b : bytes) {
             sb.append(Character.forDigit((b >> 4) & 0xF, 16));
@@ -1,11 +1,14 @@
 package com.yassine.expensetracker.security.reset;
 
+import com.yassine.expensetracker.mail.EmailOutbox;
 import com.yassine.expensetracker.user.User;
 import com.yassine.expensetracker.user.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -13,6 +16,7 @@ import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.Optional;
 
 @Service
 public class PasswordResetService {
@@ -20,7 +24,8 @@ public class PasswordResetService {
     private final UserRepository userRepository;
     private final PasswordResetTokenRepository tokenRepository;
     private final PasswordEncoder passwordEncoder;
-    private final EmailSender emailSender;
+    private final EmailOutbox emailOutbox;
+    private final TransactionTemplate tx;
 
     private final Duration resetTtl;
     private final String frontendBaseUrl;
@@ -29,14 +34,16 @@ public class PasswordResetService {
             UserRepository userRepository,
             PasswordResetTokenRepository tokenRepository,
             PasswordEncoder passwordEncoder,
-            EmailSender emailSender,
+            EmailOutbox emailOutbox,
+            PlatformTransactionManager transactionManager,
             @Value("${app.password-reset.ttl-minutes:30}") long ttlMinutes,
             @Value("${app.frontend.base-url:http://localhost:4200}") String frontendBaseUrl
     ) {
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
         this.passwordEncoder = passwordEncoder;
-        this.emailSender = emailSender;
+        this.emailOutbox = emailOutbox;
+        this.tx = new TransactionTemplate(transactionManager);
         this.resetTtl = Duration.ofMinutes(ttlMinutes);
         this.frontendBaseUrl = frontendBaseUrl;
     }
@@ -70,32 +77,44 @@ public class PasswordResetService {
                 <p>If you didn’t request this, you can ignore this email.</p>
                 """.formatted(resetTtl.toMinutes(), link, link);
 
-        emailSender.send(user.getEmail(), "Reset your password", html);
+        // envoyé en arrière-plan par EmailOutboxDispatcher, seulement si la transaction commit
+        emailOutbox.enqueue(user.getEmail(), "Reset your password", html);
     }
 
-    @Transactional
     public void resetPassword(String token, String newPassword) {
         String tokenHash = sha256Base64(token);
 
-        PasswordResetToken prt = tokenRepository.findByTokenHash(tokenHash)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid token"));
+        // vérifié avant le hash : un token invalide ne coûte pas un encode
+        checkUsable(tokenRepository.findByTokenHash(tokenHash));
 
-        if (prt.isUsed() || prt.isExpired()) {
-            throw new IllegalArgumentException("Token expired or already used");
-        }
+        // hors transaction : le hash est lent et ne doit pas tenir une connexion du pool
+        String newHash = passwordEncoder.encode(newPassword);
 
-        User user = prt.getUser();
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        tx.executeWithoutResult(status -> {
+            PasswordResetToken prt = checkUsable(tokenRepository.findByTokenHash(tokenHash));
+            // consommé par une écriture conditionnelle : deux resets concurrents, un seul passe
+            if (tokenRepository.markUsed(prt.getId(), Instant.now()) == 0) {
+                throw new IllegalArgumentException("Token expired or already used");
+            }
 
-        prt.setUsedAt(Instant.now());
-        tokenRepository.save(prt);
+            User user = prt.getUser();
+            user.setPasswordHash(newHash);
+            userRepository.save(user);
+        });
 
         // OPTION RECOMMANDÉE:
         // invalider tous les refresh tokens de l’utilisateur (s’il y a une table refresh_tokens)
         // refreshTokenRepository.deleteByUserId(user.getId());
     }
 
+    private static PasswordResetToken checkUsable(Optional<PasswordResetToken> found) {
+        PasswordResetToken prt = found.orElseThrow(() -> new IllegalArgumentException("Invalid token"));
+        if (prt.isUsed() || prt.isExpired()) {
+            throw new IllegalArgumentException("Token expired or already used");
+        }
+        return prt;
+    }
+
     // ---------- utils ----------
 
     private static final SecureRandom RNG = new SecureRandom();
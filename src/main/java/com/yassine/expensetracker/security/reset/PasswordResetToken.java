@@ -1,7 +1,9 @@
 package com.yassine.expensetracker.security.reset;
 
+import com.yassine.expensetracker.common.TimeOrderedUuidGenerator;
 import com.yassine.expensetracker.user.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -13,7 +15,7 @@ import java.util.UUID;
 public class PasswordResetToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
     private UUID id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -1,6 +1,13 @@
 package com.yassine.expensetracker.security.reset;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -8,5 +15,34 @@ import java.util.UUID;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, UUID> {
     Optional<PasswordResetToken> findByTokenHash(String tokenHash);
-    void deleteByExpiresAtBefore(Instant now);
+
+    /** Consumes the token only if still unused and unexpired; 0 means another reset got it first. */
+    @Modifying
+    @Query("""
+        update PasswordResetToken t
+           set t.usedAt = :now
+         where t.id = :id
+           and t.usedAt is null
+           and t.expiresAt > :now
+    """)
+    int markUsed(@Param("id") UUID id, @Param("now") Instant now);
+
+    /**
+     * Purge (TokenPurge): one bounded batch of expired tokens. Used tokens are not looked at, they
+     * expire within the reset TTL anyway. Native-space hint: only this table is touched, the
+     * second-level / query cache stays.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "password_reset_tokens"))
+    @Query(value = """
+        delete from password_reset_tokens
+         where id in (
+           select id from password_reset_tokens
+            where expires_at < :cutoff
+            limit :batchSize
+            for update skip locked
+         )
+    """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
 }
@@ -1,13 +1,18 @@
 package com.yassine.expensetracker.user;
 
+import com.yassine.expensetracker.common.TimeOrderedUuidGenerator;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 @Table(name = "users")
 public class User {
     @Id
@@ -24,6 +29,6 @@ public class User {
 
     @PrePersist
     void prePersist() {
-        if (id == null) id = UUID.randomUUID();
+        if (id == null) id = TimeOrderedUuidGenerator.next();
     }
 }
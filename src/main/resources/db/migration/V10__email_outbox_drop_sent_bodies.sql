@@ -0,0 +1,5 @@
+-- The body of a reset email holds the live reset link: it is only kept until the message is
+-- SENT or FAILED (EmailOutboxMessage clears it), and bodies already stored are wiped here.
+alter table email_outbox alter column html_body drop not null;
+
+update email_outbox set html_body = null where status <> 'PENDING';
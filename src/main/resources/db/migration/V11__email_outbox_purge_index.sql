@@ -0,0 +1,4 @@
+-- TokenPurge deletes SENT / FAILED rows past the retention in batches. Built concurrently:
+-- Flyway runs this script outside a transaction, the outbox keeps taking writes meanwhile.
+create index concurrently idx_email_outbox_finished on email_outbox (created_at)
+    where status <> 'PENDING';
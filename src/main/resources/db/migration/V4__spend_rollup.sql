@@ -0,0 +1,18 @@
+create table spend_rollup (
+                              user_id uuid not null references users(id) on delete cascade,
+                              month date not null,
+                              category_id uuid not null references categories(id) on delete cascade,
+                              total numeric(14,2) not null default 0,
+                              count bigint not null default 0,
+                              primary key (user_id, month, category_id)
+);
+
+-- backfill from existing rows, ExpenseService keeps it up to date afterwards
+insert into spend_rollup (user_id, month, category_id, total, count)
+select e.user_id,
+       cast(date_trunc('month', e.expense_date) as date),
+       e.category_id,
+       sum(e.amount),
+       count(*)
+from expenses e
+group by 1, 2, 3;
@@ -0,0 +1,13 @@
+-- full-text search on merchant + note: 'simple' config (no stemming, merchants are proper
+-- names in any language), kept in sync by Postgres itself
+alter table expenses
+    add column search_vector tsvector
+        generated always as (
+            to_tsvector('simple', coalesce(merchant, '') || ' ' || coalesce(note, ''))
+        ) stored;
+
+-- btree_gin lets user_id live in the same GIN index: a common word ("carrefour")
+-- only yields the current user's rows instead of every tenant's
+create extension if not exists btree_gin;
+
+create index idx_expenses_user_search on expenses using gin (user_id, search_vector);
@@ -0,0 +1,16 @@
+-- emails written in the business transaction, delivered later by EmailOutboxDispatcher
+create table email_outbox (
+                              id uuid primary key,
+                              recipient varchar(255) not null,
+                              subject varchar(255) not null,
+                              html_body text not null,
+                              status varchar(16) not null default 'PENDING',
+                              attempts int not null default 0,
+                              next_attempt_at timestamptz not null default now(),
+                              last_error text,
+                              created_at timestamptz not null default now(),
+                              sent_at timestamptz
+);
+
+-- only pending rows are ever polled
+create index idx_email_outbox_due on email_outbox (next_attempt_at) where status = 'PENDING';
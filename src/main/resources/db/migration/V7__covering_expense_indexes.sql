@@ -0,0 +1,15 @@
+-- Every aggregate over a (user_id, expense_date) slice (dashboard summary / categories /
+-- months edge rows, merchants, expense summary) only reads amount, category_id and merchant:
+-- carried as INCLUDE columns they run as index-only scans instead of one heap fetch per row.
+-- Same key as idx_expenses_user_date, so the list / keyset queries keep walking it unchanged.
+--
+-- Built concurrently under a new name, then the old index is dropped concurrently: Flyway runs
+-- this script outside a transaction and expenses keeps taking reads and writes meanwhile.
+create index concurrently idx_expenses_user_date_incl on expenses (user_id, expense_date desc)
+    include (amount, category_id, merchant);
+drop index concurrently idx_expenses_user_date;
+
+-- list filtered by category: the date range becomes part of the index condition
+-- instead of a filter applied to every row of the category
+create index concurrently idx_expenses_user_category_date on expenses (user_id, category_id, expense_date desc);
+drop index concurrently idx_expenses_user_category;
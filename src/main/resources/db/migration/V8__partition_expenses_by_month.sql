@@ -0,0 +1,114 @@
+-- expenses becomes range-partitioned by expense_date month: date-bounded queries only touch
+-- the partitions of their range (pruned at plan time, or at executor start for generic plans)
+-- and retention/archiving becomes "detach partition" instead of row-by-row deletes.
+--
+-- The partition key must be part of the primary key: (id, expense_date). The JPA mapping keeps
+-- @Id id, lookups by id alone still work (one PK probe per partition). Nothing here makes id
+-- unique on its own: ids are only ever generated by the app, never supplied by a client.
+
+alter table expenses rename to expenses_unpartitioned;
+alter table expenses_unpartitioned rename constraint expenses_pkey to expenses_unpartitioned_pkey;
+drop index idx_expenses_user_date_incl;
+drop index idx_expenses_user_category_date;
+drop index idx_expenses_user_search;
+
+create table expenses (
+    id uuid not null,
+    user_id uuid not null references users(id) on delete cascade,
+    category_id uuid not null references categories(id),
+    amount numeric(12,2) not null,
+    currency varchar(8) not null default 'EUR',
+    expense_date date not null,
+    merchant varchar(120),
+    note text,
+    created_at timestamptz not null default now(),
+    updated_at timestamptz not null default now(),
+    search_vector tsvector
+        generated always as (
+            to_tsvector('simple', coalesce(merchant, '') || ' ' || coalesce(note, ''))
+        ) stored,
+    primary key (id, expense_date)
+) partition by range (expense_date);
+
+-- dates outside every monthly partition (far past / far future) land here
+create table expenses_default partition of expenses default;
+
+/*
+ * Creates the partition of the month containing p_month if missing; returns true if created.
+ * Rows of that month already sitting in expenses_default are moved into it (a new range
+ * cannot be attached while the default partition holds matching rows).
+ * Keep the column list in sync with the table.
+ */
+create or replace function create_expense_partition(p_month date) returns boolean
+language plpgsql as $$
+declare
+    v_from date := date_trunc('month', p_month)::date;
+    v_to   date := (date_trunc('month', p_month) + interval '1 month')::date;
+    v_name text := 'expenses_' || to_char(v_from, 'YYYY_MM');
+begin
+    if to_regclass(v_name) is not null then
+        return false;
+    end if;
+
+    lock table expenses_default in access exclusive mode;
+
+    if exists (select 1 from expenses_default where expense_date >= v_from and expense_date < v_to) then
+        create temporary table expense_partition_moved on commit drop as
+            select id, user_id, category_id, amount, currency, expense_date, merchant, note, created_at, updated_at
+            from expenses_default
+            where expense_date >= v_from and expense_date < v_to;
+        delete from expenses_default where expense_date >= v_from and expense_date < v_to;
+        execute format('create table %I partition of expenses for values from (%L) to (%L)', v_name, v_from, v_to);
+        insert into expenses (id, user_id, category_id, amount, currency, expense_date, merchant, note, created_at, updated_at)
+            select id, user_id, category_id, amount, currency, expense_date, merchant, note, created_at, updated_at
+            from expense_partition_moved;
+        drop table expense_partition_moved;
+    else
+        execute format('create table %I partition of expenses for values from (%L) to (%L)', v_name, v_from, v_to);
+    end if;
+    return true;
+end;
+$$;
+
+/* Monthly partitions for every month in [p_from, p_to]; returns how many were created. */
+create or replace function ensure_expense_partitions(p_from date, p_to date) returns integer
+language plpgsql as $$
+declare
+    v_month date := date_trunc('month', p_from)::date;
+    v_created integer := 0;
+begin
+    -- several app instances may run the maintenance at the same time
+    perform pg_advisory_xact_lock(hashtext('ensure_expense_partitions'));
+    while v_month <= p_to loop
+        if create_expense_partition(v_month) then
+            v_created := v_created + 1;
+        end if;
+        v_month := (v_month + interval '1 month')::date;
+    end loop;
+    return v_created;
+end;
+$$;
+
+-- existing history (at most 5 years back, older rows go to the default partition) + 12 months ahead,
+-- ExpensePartitionMaintenance keeps the window moving afterwards
+select ensure_expense_partitions(
+    greatest(
+        coalesce((select min(expense_date) from expenses_unpartitioned), current_date),
+        (date_trunc('month', current_date) - interval '5 years')::date
+    ),
+    (current_date + interval '12 months')::date
+);
+
+insert into expenses (id, user_id, category_id, amount, currency, expense_date, merchant, note, created_at, updated_at)
+select id, user_id, category_id, amount, currency, expense_date, merchant, note, created_at, updated_at
+from expenses_unpartitioned;
+
+drop table expenses_unpartitioned;
+
+-- indexes declared on the parent cascade to every partition, present and future
+create index idx_expenses_user_date on expenses (user_id, expense_date desc)
+    include (amount, category_id, merchant);
+create index idx_expenses_user_category on expenses (user_id, category_id, expense_date desc);
+create index idx_expenses_user_search on expenses using gin (user_id, search_vector);
+
+analyze expenses;
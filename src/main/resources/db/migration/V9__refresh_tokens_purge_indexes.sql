@@ -0,0 +1,9 @@
+-- TokenPurge deletes expired and revoked refresh tokens in batches: each batch picks its ids
+-- through one of these indexes instead of scanning the table (password_reset_tokens already
+-- has idx_prt_expires_at). Built concurrently: Flyway runs this script outside a transaction,
+-- logins and refreshes keep writing to refresh_tokens meanwhile.
+create index concurrently idx_refresh_tokens_expires_at on refresh_tokens (expires_at);
+
+-- only revoked rows, a small index since the purge keeps removing them
+create index concurrently idx_refresh_tokens_revoked_at on refresh_tokens (revoked_at)
+    where revoked_at is not null;
@@ -3,6 +3,9 @@ package com.yassine.expensetracker.category;
 import com.yassine.expensetracker.security.jwt.JwtService;
 import com.yassine.expensetracker.user.User;
 import com.yassine.expensetracker.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +18,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.client.RestTestClient;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,6 +35,7 @@ class CategoryIntegrationTest {
     @Autowired UserRepository userRepository;
     @Autowired CategoryRepository categoryRepository;
     @Autowired JwtService jwtService;
+    @Autowired EntityManagerFactory entityManagerFactory;
 
     private UUID userId;
     private String token;
@@ -194,4 +199,49 @@ class CategoryIntegrationTest {
         delete.expectStatus().is2xxSuccessful();
         assertThat(categoryRepository.findById(categoryId)).isEmpty();
     }
+
+    @Test
+    @DisplayName("GET /api/categories -> 2e appel servi par le cache de requêtes, PUT / DELETE l'invalident")
+    void categories_shouldBeServedFromQueryCache_untilUpdatedOrDeleted() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        getCategoriesAuth().expectStatus().isOk();
+
+        stats.clear();
+        getCategoriesAuth().expectStatus().isOk()
+                .expectBody().jsonPath("$[0].name").isEqualTo("Food");
+        assertThat(stats.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(stats.getPrepareStatementCount()).isZero();
+
+        putCategoryAuth(categoryId, """
+            { "name": "Courses", "color": "#00FF00", "icon": "x", "budgetLimit": 50.00 }
+            """).expectStatus().isOk();
+        getCategoriesAuth().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Courses")
+                .jsonPath("$[0].budgetLimit").isEqualTo(50.00);
+
+        deleteCategoryAuth(categoryId).expectStatus().is2xxSuccessful();
+        getCategoriesAuth().expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(0);
+
+        assertThat(stats.getCacheRegionStatistics("category")).isNotNull();
+        assertThat(stats.getCacheRegionStatistics("default-query-results-region").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("POST /api/categories -> utilisateur attaché par référence : contrôle du nom + insert, sans select users")
+    void create_shouldAttachUserWithoutSelect() {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        postCategoryAuth("""
+            { "name": "Transport", "color": "#0000FF", "icon": "x" }
+            """).expectStatus().isOk();
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(categoryRepository.findAllByUserIdOrderByNameAsc(userId)).hasSize(2);
+    }
 }
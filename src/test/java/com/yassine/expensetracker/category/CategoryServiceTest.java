@@ -1,12 +1,14 @@
 package com.yassine.expensetracker.category;
 
 import com.yassine.expensetracker.category.CategoryDtos.*;
+import com.yassine.expensetracker.common.SpendDataChangedEvent;
 import com.yassine.expensetracker.user.User;
 import com.yassine.expensetracker.user.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -20,6 +22,7 @@ class CategoryServiceTest {
 
     @Mock CategoryRepository categoryRepository;
     @Mock UserRepository userRepository;
+    @Mock ApplicationEventPublisher events;
 
     @InjectMocks CategoryService categoryService;
 
@@ -69,7 +72,7 @@ class CategoryServiceTest {
         User user = new User();
         user.setEmail("it@test.com");
         user.setPasswordHash("x");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
 
         ArgumentCaptor<Category> captor = ArgumentCaptor.forClass(Category.class);
 
@@ -90,7 +93,7 @@ class CategoryServiceTest {
         assertThat(res.budgetLimit()).isEqualByComparingTo("100.00");
 
         verify(categoryRepository).existsByUserIdAndNameIgnoreCase(userId, "Food");
-        verify(userRepository).findById(userId);
+        verify(userRepository).getReferenceById(userId);
         verifyNoMoreInteractions(categoryRepository, userRepository);
     }
 
@@ -117,31 +120,6 @@ class CategoryServiceTest {
         verifyNoInteractions(userRepository);
     }
 
-    @Test
-    void create_shouldThrow_whenUserNotFound() {
-        UUID userId = UUID.randomUUID();
-
-        CreateCategoryRequest req = new CreateCategoryRequest(
-                "Food",
-                "#fff",
-                "🍔",
-                null
-        );
-
-        when(categoryRepository.existsByUserIdAndNameIgnoreCase(userId, "Food"))
-                .thenReturn(false);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> categoryService.create(userId, req))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessage("Authenticated user not found");
-
-        verify(categoryRepository).existsByUserIdAndNameIgnoreCase(userId, "Food");
-        verify(userRepository).findById(userId);
-        verifyNoMoreInteractions(categoryRepository, userRepository);
-    }
-
     @Test
     void update_shouldUpdateFields_whenNameChangedAndNoConflict() {
         UUID userId = UUID.randomUUID();
@@ -266,6 +244,7 @@ class CategoryServiceTest {
 
         verify(categoryRepository).findByIdAndUserId(categoryId, userId);
         verify(categoryRepository).delete(existing);
+        verify(events).publishEvent(new SpendDataChangedEvent(userId));
         verifyNoMoreInteractions(categoryRepository);
         verifyNoInteractions(userRepository);
     }
@@ -284,6 +263,6 @@ class CategoryServiceTest {
 
         verify(categoryRepository).findByIdAndUserId(categoryId, userId);
         verifyNoMoreInteractions(categoryRepository);
-        verifyNoInteractions(userRepository);
+        verifyNoInteractions(userRepository, events);
     }
 }
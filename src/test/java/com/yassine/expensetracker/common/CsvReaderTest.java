@@ -0,0 +1,38 @@
+package com.yassine.expensetracker.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void next_shouldHandleQuotesEscapesAndLineEndings() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "a,b,c\r\n\"x, y\",\"say \"\"hi\"\"\",\n\n\"multi\nline\",2,3"));
+
+        assertThat(csv.next()).containsExactly("a", "b", "c");
+        assertThat(csv.recordNumber()).isEqualTo(1);
+
+        assertThat(csv.next()).containsExactly("x, y", "say \"hi\"", "");
+        assertThat(csv.next()).containsExactly("multi\nline", "2", "3");
+        assertThat(csv.recordNumber()).isEqualTo(3);
+
+        assertThat(csv.next()).isNull();
+    }
+
+    @Test
+    void next_shouldRejectUnterminatedQuote() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\n\"oops,1"));
+
+        csv.next();
+
+        assertThatThrownBy(csv::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("record 2");
+    }
+}
@@ -0,0 +1,29 @@
+package com.yassine.expensetracker.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LimitedInputStreamTest {
+
+    @Test
+    void read_shouldPassThrough_upToTheCap() throws IOException {
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(new byte[10]), 10);
+
+        assertThat(in.readAllBytes()).hasSize(10);
+    }
+
+    @Test
+    void read_shouldThrow_oncePastTheCap() {
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(new byte[11]), 10);
+
+        assertThatThrownBy(in::readAllBytes)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Request body too large (max 10 bytes)");
+    }
+}
@@ -0,0 +1,35 @@
+package com.yassine.expensetracker.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void next_shouldBeVersion7_withCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedUuidGenerator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // peut être légèrement en avance si le compteur a débordé, jamais en retard
+        assertThat(TimeOrderedUuidGenerator.timestampMillis(id)).isBetween(before, after + 10);
+    }
+
+    @Test
+    void next_shouldBeStrictlyIncreasing_evenWithinTheSameMillisecond() {
+        UUID previous = TimeOrderedUuidGenerator.next();
+        for (int i = 0; i < 20_000; i++) {
+            UUID id = TimeOrderedUuidGenerator.next();
+            // ordre de PostgreSQL (octets non signés) : les 64 premiers bits suffisent à départager
+            assertThat(Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()))
+                    .as("id #%d", i)
+                    .isPositive();
+            previous = id;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.yassine.expensetracker.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(10);
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void shouldReportSite_whenVirtualThreadBlocksInsideSynchronized() throws Exception {
+        monitor.start();
+
+        Thread vt = Thread.ofVirtual().start(this::sleepWhileHoldingMonitor);
+        vt.join();
+
+        // JFR streams events about once per second
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (monitor.totalPinnedEvents() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertThat(monitor.snapshot())
+                .anySatisfy(site -> {
+                    assertThat(site.site()).contains("VirtualThreadPinningMonitorTest.sleepWhileHoldingMonitor");
+                    assertThat(site.count()).isEqualTo(1);
+                    assertThat(site.maxPinned().toMillis()).isGreaterThanOrEqualTo(10);
+                });
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.yassine.expensetracker.dashboard;
+
+import com.yassine.expensetracker.common.DateRange;
+import com.yassine.expensetracker.common.SpendDataChangedEvent;
+import com.yassine.expensetracker.common.dto.DashboardCacheStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DashboardCacheTest {
+
+    private static final DateRange RANGE = new DateRange(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+
+    private final DashboardCache cache = new DashboardCache(100, 300);
+
+    @Test
+    void get_shouldLoadOnce_thenServeFromCache() {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        String first = cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, () -> "v" + loads.incrementAndGet());
+        String second = cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, () -> "v" + loads.incrementAndGet());
+
+        assertThat(first).isEqualTo("v1");
+        assertThat(second).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+
+        DashboardCacheStats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldKeySeparately_byViewRangeTopAndLimit() {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, loads::incrementAndGet);
+        cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 10, 0, loads::incrementAndGet);
+        cache.get(userId, DashboardCache.View.MERCHANTS, RANGE, 0, 5, loads::incrementAndGet);
+        cache.get(userId, DashboardCache.View.DASHBOARD, new DateRange(RANGE.from(), RANGE.to().minusDays(1)), 5, 0, loads::incrementAndGet);
+        // top et limit sont deux champs de la clé : (1, 0) et (0, 1000) ne se confondent pas
+        cache.get(userId, DashboardCache.View.OVERVIEW, RANGE, 1, 0, loads::incrementAndGet);
+        cache.get(userId, DashboardCache.View.OVERVIEW, RANGE, 0, 1000, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(6);
+    }
+
+    @Test
+    void onSpendDataChanged_shouldDropOnlyThatUsersEntries() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(alice, DashboardCache.View.DASHBOARD, RANGE, 5, 0, loads::incrementAndGet);
+        cache.get(alice, DashboardCache.View.CATEGORIES, RANGE, 0, 0, loads::incrementAndGet);
+        cache.get(bob, DashboardCache.View.DASHBOARD, RANGE, 5, 0, loads::incrementAndGet);
+
+        cache.onSpendDataChanged(new SpendDataChangedEvent(alice));
+
+        Integer reloaded = cache.get(alice, DashboardCache.View.DASHBOARD, RANGE, 5, 0, loads::incrementAndGet);
+        cache.get(bob, DashboardCache.View.DASHBOARD, RANGE, 5, 0, loads::incrementAndGet);
+
+        assertThat(reloaded).isEqualTo(4);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void get_shouldLoadOutsideTheCacheCompute() {
+        UUID userId = UUID.randomUUID();
+
+        // un loader qui relit le cache échouerait (recursive update) s'il tournait dans le compute
+        String outer = cache.get(userId, DashboardCache.View.OVERVIEW, RANGE, 5, 0,
+                () -> "outer+" + cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, () -> "inner"));
+
+        assertThat(outer).isEqualTo("outer+inner");
+        assertThat(cache.stats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void get_shouldNotCacheFailures() {
+        UUID userId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void get_shouldShareOneLoad_betweenConcurrentCallers() throws Exception {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            Future<Integer> first = pool.submit(() -> cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, () -> {
+                loading.countDown();
+                await(release);
+                return loads.incrementAndGet();
+            }));
+            loading.await();
+            Future<Integer> second = pool.submit(() ->
+                    cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, loads::incrementAndGet));
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void get_shouldNotStoreValuesRejectedByCacheable() {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        Integer partial = cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, loads::incrementAndGet, v -> v > 1);
+        Integer complete = cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, loads::incrementAndGet, v -> v > 1);
+        Integer cached = cache.get(userId, DashboardCache.View.DASHBOARD, RANGE, 5, 0, loads::incrementAndGet, v -> v > 1);
+
+        assertThat(partial).isEqualTo(1);
+        assertThat(complete).isEqualTo(2);
+        assertThat(cached).isEqualTo(2);
+        assertThat(cache.stats().size()).isEqualTo(1);
+    }
+}
@@ -1,8 +1,12 @@
 package com.yassine.expensetracker.dashboard;
 
+import com.yassine.expensetracker.category.Category;
+import com.yassine.expensetracker.category.CategoryRepository;
+import com.yassine.expensetracker.expense.ExpenseDtos.ExpenseResponse;
 import com.yassine.expensetracker.security.jwt.JwtService;
 import com.yassine.expensetracker.user.User;
 import com.yassine.expensetracker.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +18,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.client.RestTestClient;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,6 +33,7 @@ class DashboardIntegrationTest {
 
     @Autowired RestTestClient client;
     @Autowired UserRepository userRepository;
+    @Autowired CategoryRepository categoryRepository;
     @Autowired JwtService jwtService;
 
     private UUID userId;
@@ -48,6 +54,22 @@ class DashboardIntegrationTest {
                 .exchange();
     }
 
+    private UUID postExpense(UUID categoryId, String date, String amount) {
+        return client.post()
+                .uri("/api/expenses")
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("""
+                    { "amount": %s, "expenseDate": "%s", "categoryId": "%s", "merchant": "Shop" }
+                    """.formatted(amount, date, categoryId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ExpenseResponse.class)
+                .returnResult()
+                .getResponseBody()
+                .id();
+    }
+
     private void expectDashboardShape(RestTestClient.ResponseSpec spec) {
         spec.expectStatus().isOk();
         spec.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
@@ -73,6 +95,12 @@ class DashboardIntegrationTest {
         token = jwtService.generateToken(userId, u.getEmail(), TOKEN_TTL_SECONDS);
     }
 
+    @AfterEach
+    void tearDown() {
+        // cascades to categories / expenses so other test classes start clean
+        userRepository.deleteAll();
+    }
+
     @Test
     @DisplayName("GET /api/dashboard -> 401 quand pas de header Authorization")
     void dashboard_shouldReturn401_whenNoAuthHeader() {
@@ -166,4 +194,109 @@ class DashboardIntegrationTest {
         getAuth(BASE + "/merchants?limit=abc")
                 .expectStatus().isBadRequest();
     }
+
+    @Test
+    @DisplayName("GET /api/dashboard -> totaux à jour après create/update/delete (rollup + mois partiels)")
+    void dashboard_shouldReflectExpenseWrites_acrossRollupAndPartialMonths() {
+        Category c = new Category();
+        c.setUser(userRepository.findById(userId).orElseThrow());
+        c.setName("Food");
+        c.setColor("#FF0000");
+        c.setIcon("🍔");
+        c.setBudgetLimit(new BigDecimal("100.00"));
+        categoryRepository.save(c);
+
+        postExpense(c.getId(), "2025-11-20", "10.00");   // partial month -> raw expenses
+        UUID dec05 = postExpense(c.getId(), "2025-12-05", "20.00");
+        UUID dec20 = postExpense(c.getId(), "2025-12-20", "5.00");
+        postExpense(c.getId(), "2026-01-10", "7.00");
+
+        client.put()
+                .uri("/api/expenses/" + dec20)
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("""
+                    { "amount": 8.00, "expenseDate": "2026-01-12", "categoryId": "%s" }
+                    """.formatted(c.getId()))
+                .exchange()
+                .expectStatus().isOk();
+
+        client.delete()
+                .uri("/api/expenses/" + dec05)
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .exchange()
+                .expectStatus().is2xxSuccessful();
+
+        getAuth(BASE + "?from=2025-11-15&to=2026-01-31&top=5")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.summary.total").isEqualTo(25.0)
+                .jsonPath("$.summary.count").isEqualTo(3)
+                .jsonPath("$.topCategories.length()").isEqualTo(1)
+                .jsonPath("$.topCategories[0].total").isEqualTo(25.0)
+                .jsonPath("$.monthlySeries.length()").isEqualTo(2)
+                .jsonPath("$.monthlySeries[0].month").isEqualTo("2025-11")
+                .jsonPath("$.monthlySeries[1].month").isEqualTo("2026-01")
+                .jsonPath("$.monthlySeries[1].total").isEqualTo(15.0);
+
+        getAuth(BASE + "/categories?from=2025-11-15&to=2026-01-31")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].total").isEqualTo(25.0)
+                .jsonPath("$[0].count").isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("GET /api/dashboard/overview -> mêmes chiffres que les endpoints séparés, en une requête")
+    void overview_shouldMatchSeparateEndpoints() {
+        Category c = new Category();
+        c.setUser(userRepository.findById(userId).orElseThrow());
+        c.setName("Food");
+        c.setColor("#FF0000");
+        c.setIcon("🍔");
+        categoryRepository.save(c);
+
+        postExpense(c.getId(), "2025-11-20", "10.00");   // mois partiel
+        postExpense(c.getId(), "2025-12-05", "20.00");   // mois complet -> rollup
+        postExpense(c.getId(), "2026-01-10", "7.00");
+
+        String range = "?from=2025-11-15&to=2026-01-31";
+
+        getAuth(BASE + "/overview" + range + "&top=5&limit=10")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.summary.total").isEqualTo(37.0)
+                .jsonPath("$.summary.count").isEqualTo(3)
+                .jsonPath("$.topCategories.length()").isEqualTo(1)
+                .jsonPath("$.topCategories[0].categoryName").isEqualTo("Food")
+                .jsonPath("$.monthlySeries.length()").isEqualTo(3)
+                .jsonPath("$.monthlySeries[0].month").isEqualTo("2025-11")
+                .jsonPath("$.monthlySeries[1].total").isEqualTo(20.0)
+                .jsonPath("$.categories[0].total").isEqualTo(37.0)
+                .jsonPath("$.categories[0].count").isEqualTo(3)
+                .jsonPath("$.merchants.length()").isEqualTo(1)
+                .jsonPath("$.merchants[0].merchant").isEqualTo("Shop")
+                .jsonPath("$.merchants[0].total").isEqualTo(37.0);
+
+        getAuth(BASE + range + "&top=5")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.summary.total").isEqualTo(37.0)
+                .jsonPath("$.monthlySeries.length()").isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("GET /api/dashboard/overview -> 200 sans données, 400 si limit hors bornes")
+    void overview_shouldHandleEmptyRangeAndRejectBadLimit() {
+        getAuth(BASE + "/overview")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.summary.total").isEqualTo(0)
+                .jsonPath("$.summary.count").isEqualTo(0)
+                .jsonPath("$.categories").isEmpty()
+                .jsonPath("$.merchants").isEmpty();
+
+        getAuth(BASE + "/overview?limit=1000")
+                .expectStatus().isBadRequest();
+    }
 }
@@ -1,23 +1,32 @@
 package com.yassine.expensetracker.dashboard;
 
+import com.yassine.expensetracker.common.dto.CategorySpendDto;
+import com.yassine.expensetracker.common.dto.DashboardOverviewResponse;
 import com.yassine.expensetracker.common.dto.DashboardResponse;
+import com.yassine.expensetracker.common.dto.MerchantSpendDto;
 import com.yassine.expensetracker.common.dto.MonthlySpendDto;
 import com.yassine.expensetracker.common.dto.SummaryDto;
 import com.yassine.expensetracker.common.dto.TopCategoryDto;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -27,9 +36,20 @@ class DashboardServiceTest {
     @Mock
     DashboardRepository dashboardRepository;
 
-    @InjectMocks
+    @Mock
+    PlatformTransactionManager transactionManager;
+
     DashboardService dashboardService;
 
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(dashboardRepository, fanOut(false, 2000, "partial"));
+    }
+
+    private DashboardFanOut fanOut(boolean parallel, long timeoutMs, String onTimeout) {
+        return new DashboardFanOut(transactionManager, parallel, timeoutMs, onTimeout);
+    }
+
     private static DashboardRepository.SummaryView summaryView(BigDecimal total, long count) {
         return new DashboardRepository.SummaryView() {
             @Override public BigDecimal getTotal() { return total; }
@@ -62,16 +82,16 @@ class DashboardServiceTest {
         UUID foodId = UUID.randomUUID();
         UUID rentId = UUID.randomUUID();
 
-        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class)))
+        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(summaryView(new BigDecimal("123.45"), 7));
 
-        when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+        when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
                 .thenReturn(List.of(
                         topCategoryView(foodId, "Food", new BigDecimal("80.00")),
                         topCategoryView(rentId, "Rent", new BigDecimal("43.45"))
                 ));
 
-        when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class)))
+        when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(List.of(
                         monthlySpendView("2025-11", new BigDecimal("10.00")),
                         monthlySpendView("2025-12", new BigDecimal("113.45"))
@@ -99,17 +119,17 @@ class DashboardServiceTest {
         LocalDate to = LocalDate.of(2025, 12, 31);
         int top = 12;
 
-        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class)))
+        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(summaryView(BigDecimal.ZERO, 0));
-        when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+        when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
                 .thenReturn(List.of());
-        when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class)))
+        when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(List.of());
 
         dashboardService.getDashboard(userId, from, to, top);
 
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        verify(dashboardRepository).topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), pageableCaptor.capture());
+        verify(dashboardRepository).topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), pageableCaptor.capture());
 
         Pageable p = pageableCaptor.getValue();
         assertThat(p.getPageNumber()).isEqualTo(0);
@@ -122,18 +142,167 @@ class DashboardServiceTest {
         LocalDate from = LocalDate.of(2025, 12, 1);
         LocalDate to = LocalDate.of(2025, 12, 31);
 
-        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class)))
+        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(summaryView(BigDecimal.ZERO, 0));
-        when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+        when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
                 .thenReturn(List.of());
-        when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class)))
+        when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(List.of());
 
         dashboardService.getDashboard(userId, from, to, 5);
 
-        verify(dashboardRepository, times(1)).summary(eq(userId), any(LocalDate.class), any(LocalDate.class));
-        verify(dashboardRepository, times(1)).topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class));
-        verify(dashboardRepository, times(1)).monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class));
+        verify(dashboardRepository, times(1)).summary(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class));
+        verify(dashboardRepository, times(1)).topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(Pageable.class));
+        verify(dashboardRepository, times(1)).monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class));
         verifyNoMoreInteractions(dashboardRepository);
     }
+
+    @Test
+    void getDashboard_shouldPassFullMonthBoundsForRollup() {
+        UUID userId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2025, 3, 15);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+
+        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(summaryView(BigDecimal.ZERO, 0));
+        when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of());
+
+        dashboardService.getDashboard(userId, from, to, 5);
+
+        // April..June are fully covered, March 15-31 is read from raw expenses
+        verify(dashboardRepository).summary(userId, from, to, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 7, 1));
+        verify(dashboardRepository).monthlySpend(userId, from, to, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 7, 1));
+    }
+
+    @Test
+    void getDashboard_parallel_shouldRunSubQueriesConcurrently() {
+        dashboardService = new DashboardService(dashboardRepository, fanOut(true, 5000, "fail"));
+        UUID userId = UUID.randomUUID();
+        // chaque requête attend que les 3 aient démarré : ne passe que si elles tournent en même temps
+        CountDownLatch started = new CountDownLatch(3);
+
+        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(inv -> { rendezVous(started); return summaryView(new BigDecimal("9.99"), 1); });
+        when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .thenAnswer(inv -> { rendezVous(started); return List.of(); });
+        when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(inv -> { rendezVous(started); return List.of(monthlySpendView("2025-12", new BigDecimal("9.99"))); });
+
+        DashboardResponse res = dashboardService.getDashboard(userId, LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 31), 5);
+
+        assertThat(res.summary()).isEqualTo(new SummaryDto(new BigDecimal("9.99"), 1));
+        assertThat(res.monthlySeries()).containsExactly(new MonthlySpendDto("2025-12", new BigDecimal("9.99")));
+        assertThat(res.unavailable()).isEmpty();
+        // une transaction par sous-requête
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void getDashboard_parallel_partial_shouldReportTimedOutParts() {
+        dashboardService = new DashboardService(dashboardRepository, fanOut(true, 200, "partial"));
+        UUID userId = UUID.randomUUID();
+
+        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(summaryView(new BigDecimal("1.00"), 1));
+        when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .thenAnswer(inv -> { Thread.sleep(2000); return List.of(); });
+        when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenThrow(new IllegalStateException("boom"));
+
+        long t0 = System.nanoTime();
+        DashboardResponse res = dashboardService.getDashboard(userId, LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 31), 5);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0)).isLessThan(1500);
+        assertThat(res.summary()).isEqualTo(new SummaryDto(new BigDecimal("1.00"), 1));
+        assertThat(res.topCategories()).isEmpty();
+        assertThat(res.monthlySeries()).isEmpty();
+        assertThat(res.unavailable()).containsExactly("topCategories", "monthlySeries");
+        assertThat(res.complete()).isFalse();
+    }
+
+    @Test
+    void getDashboard_parallel_fail_shouldThrow503OnTimeout() {
+        dashboardService = new DashboardService(dashboardRepository, fanOut(true, 100, "fail"));
+        UUID userId = UUID.randomUUID();
+
+        when(dashboardRepository.summary(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(inv -> { Thread.sleep(2000); return summaryView(BigDecimal.ZERO, 0); });
+        lenient().when(dashboardRepository.topCategories(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of());
+        lenient().when(dashboardRepository.monthlySpend(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> dashboardService.getDashboard(userId, LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 31), 5))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    void getOverview_shouldSplitBreakdownRowsIntoDtos() {
+        UUID userId = UUID.randomUUID();
+        UUID foodId = UUID.randomUUID();
+        UUID rentId = UUID.randomUUID();
+        UUID funId = UUID.randomUUID();
+
+        when(dashboardRepository.breakdown(eq(userId), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class), eq(10)))
+                .thenReturn(List.of(
+                        breakdownRow("CATEGORY", rentId, "Rent", null, null, "500.00", 1),
+                        breakdownRow("CATEGORY", foodId, "Food", null, null, "80.00", 4),
+                        breakdownRow("CATEGORY", funId, "Fun", null, null, "20.00", 2),
+                        breakdownRow("MERCHANT", null, null, null, "Landlord", "500.00", 1),
+                        breakdownRow("MONTH", null, null, "2025-11", null, "100.00", 3),
+                        breakdownRow("MONTH", null, null, "2025-12", null, "500.00", 4),
+                        breakdownRow("TOTAL", null, null, null, null, "600.00", 7)
+                ));
+
+        DashboardOverviewResponse res = dashboardService.getOverview(userId, LocalDate.of(2025, 11, 1), LocalDate.of(2025, 12, 31), 2, 10);
+
+        assertThat(res.summary()).isEqualTo(new SummaryDto(new BigDecimal("600.00"), 7));
+        assertThat(res.topCategories()).containsExactly(
+                new TopCategoryDto(rentId, "Rent", new BigDecimal("500.00")),
+                new TopCategoryDto(foodId, "Food", new BigDecimal("80.00"))
+        );
+        assertThat(res.categories()).hasSize(3);
+        assertThat(res.categories().get(2)).isEqualTo(new CategorySpendDto(funId, "Fun", new BigDecimal("20.00"), 2));
+        assertThat(res.monthlySeries()).extracting(MonthlySpendDto::month).containsExactly("2025-11", "2025-12");
+        assertThat(res.merchants()).containsExactly(new MerchantSpendDto("Landlord", new BigDecimal("500.00"), 1));
+        verify(dashboardRepository, times(1)).breakdown(any(), any(), any(), any(), any(), anyInt());
+        verifyNoMoreInteractions(dashboardRepository);
+    }
+
+    @Test
+    void getOverview_shouldRejectOutOfRangeLimits() {
+        UUID userId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2025, 12, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+
+        assertThatThrownBy(() -> dashboardService.getOverview(userId, from, to, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> dashboardService.getOverview(userId, from, to, 5, 101))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(dashboardRepository);
+    }
+
+    private static DashboardRepository.BreakdownRowView breakdownRow(
+            String kind, UUID categoryId, String categoryName, String month, String merchant, String total, long count) {
+        return new DashboardRepository.BreakdownRowView() {
+            @Override public String getKind() { return kind; }
+            @Override public UUID getCategoryId() { return categoryId; }
+            @Override public String getCategoryName() { return categoryName; }
+            @Override public String getMonth() { return month; }
+            @Override public String getMerchant() { return merchant; }
+            @Override public BigDecimal getTotal() { return new BigDecimal(total); }
+            @Override public long getCount() { return count; }
+        };
+    }
+
+    private static void rendezVous(CountDownLatch started) throws InterruptedException {
+        started.countDown();
+        if (!started.await(2, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("sub-queries did not run concurrently");
+        }
+    }
 }
@@ -3,8 +3,14 @@ package com.yassine.expensetracker.expense;
 import com.yassine.expensetracker.security.jwt.JwtService;
 import com.yassine.expensetracker.category.Category;
 import com.yassine.expensetracker.category.CategoryRepository;
+import com.yassine.expensetracker.dashboard.SpendRollup;
+import com.yassine.expensetracker.dashboard.SpendRollupRepository;
 import com.yassine.expensetracker.user.User;
 import com.yassine.expensetracker.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,11 +19,14 @@ import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTe
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.client.RestTestClient;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,8 +46,12 @@ class ExpenseIntegrationTest {
     @Autowired UserRepository userRepository;
     @Autowired CategoryRepository categoryRepository;
     @Autowired ExpenseRepository expenseRepository;
+    @Autowired ExpensePartitionMaintenance partitionMaintenance;
+    @Autowired SpendRollupRepository spendRollupRepository;
 
     @Autowired JwtService jwtService;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired EntityManagerFactory entityManagerFactory;
 
     private UUID userId;
     private String token;
@@ -94,6 +107,10 @@ class ExpenseIntegrationTest {
     }
 
     private UUID seedExpense(LocalDate date, String merchant, String note, BigDecimal amount) {
+        return seedExpense(categoryId, date, merchant, note, amount);
+    }
+
+    private UUID seedExpense(UUID categoryId, LocalDate date, String merchant, String note, BigDecimal amount) {
         Expense e = new Expense();
         e.setUser(userRepository.findById(userId).orElseThrow());
         e.setCategory(categoryRepository.findById(categoryId).orElseThrow());
@@ -131,6 +148,13 @@ class ExpenseIntegrationTest {
         categoryId = c.getId();
     }
 
+    @AfterEach
+    void tearDown() {
+        expenseRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
     @Test
     @DisplayName("GET /api/expenses -> 401 quand pas de header Authorization")
     void expenses_shouldReturn401_whenNoAuthHeader() {
@@ -261,6 +285,74 @@ class ExpenseIntegrationTest {
         assertThat(expenseRepository.findById(expenseId)).isEmpty();
     }
 
+    @Test
+    @DisplayName("PUT /api/expenses/{id} -> changement de mois : une seule écriture, rollup ajusté, updated_at avancé")
+    void expenses_shouldUpdateInOneStatement_andMoveRollupBucket() {
+        UUID expenseId = postAuth("""
+            { "amount": 10.00, "expenseDate": "2025-12-10", "categoryId": "%s", "merchant": "Carrefour" }
+            """.formatted(categoryId))
+                .expectStatus().isOk()
+                .expectBody(ExpenseDtos.ExpenseResponse.class).returnResult().getResponseBody().id();
+        Timestamp updatedBefore = jdbc.queryForObject("select updated_at from expenses where id = ?", Timestamp.class, expenseId);
+
+        Statistics stats = statistics();
+        stats.clear();
+        putAuth(expenseId, """
+            { "amount": 20.00, "expenseDate": "2025-11-05", "categoryId": "%s", "merchant": "Auchan" }
+            """.formatted(categoryId))
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.expenseDate").isEqualTo("2025-11-05")
+                .jsonPath("$.currency").isEqualTo("EUR")
+                .jsonPath("$.categoryName").isEqualTo("Food");
+
+        // update ... returning + 2 upserts du rollup (catégorie servie par le cache de requêtes)
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(stats.getEntityStatistics(Expense.class.getName()).getLoadCount()).isZero();
+
+        Timestamp updatedAfter = jdbc.queryForObject("select updated_at from expenses where id = ?", Timestamp.class, expenseId);
+        assertThat(updatedAfter).isAfter(updatedBefore);
+        assertThat(jdbc.queryForObject("select tableoid::regclass::text from expenses where id = ?", String.class, expenseId))
+                .isEqualTo("expenses_2025_11");
+
+        SpendRollup december = spendRollupRepository
+                .findById(new SpendRollup.Key(userId, LocalDate.of(2025, 12, 1), categoryId)).orElseThrow();
+        SpendRollup november = spendRollupRepository
+                .findById(new SpendRollup.Key(userId, LocalDate.of(2025, 11, 1), categoryId)).orElseThrow();
+        assertThat(december.getCount()).isZero();
+        assertThat(december.getTotal()).isEqualByComparingTo("0");
+        assertThat(november.getCount()).isEqualTo(1);
+        assertThat(november.getTotal()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    @DisplayName("PUT / DELETE /api/expenses/{id} -> 400 sur la dépense d'un autre utilisateur, ligne intacte")
+    void expenses_shouldNotUpdateOrDelete_whenOwnedBySomeoneElse() {
+        UUID expenseId = seedExpense(LocalDate.of(2025, 12, 10), "Carrefour", "mine", new BigDecimal("10.00"));
+
+        User other = new User();
+        other.setEmail("other@test.com");
+        other.setPasswordHash("x");
+        userRepository.save(other);
+        Category otherCategory = new Category();
+        otherCategory.setUser(other);
+        otherCategory.setName("Other");
+        otherCategory.setColor("#000000");
+        otherCategory.setIcon("x");
+        categoryRepository.save(otherCategory);
+        token = jwtService.generateToken(other.getId(), other.getEmail(), TOKEN_TTL_SECONDS);
+
+        putAuth(expenseId, """
+            { "amount": 1.00, "expenseDate": "2025-12-10", "categoryId": "%s" }
+            """.formatted(otherCategory.getId()))
+                .expectStatus().isBadRequest();
+        deleteAuth(expenseId).expectStatus().isBadRequest();
+
+        Expense unchanged = expenseRepository.findById(expenseId).orElseThrow();
+        assertThat(unchanged.getAmount()).isEqualByComparingTo("10.00");
+        assertThat(unchanged.getNote()).isEqualTo("mine");
+    }
+
     @Test
     @DisplayName("GET /api/expenses -> filtre q (contient) marche")
     void expenses_shouldSearchByQ() {
@@ -277,6 +369,134 @@ class ExpenseIntegrationTest {
                 .jsonPath("$.items[0].merchant").isEqualTo("Carrefour");
     }
 
+    @Test
+    @DisplayName("GET /api/expenses -> q full-text : préfixes sur merchant + note, combiné aux filtres")
+    void expenses_shouldSearchFullText_withPrefixes_andFilters() {
+        seedExpense(LocalDate.of(2025, 12, 10), "Ikea", "chaise bureau", new BigDecimal("80.00"));
+        seedExpense(LocalDate.of(2025, 12, 11), "Ikea", "chaise cuisine", new BigDecimal("20.00"));
+        seedExpense(LocalDate.of(2025, 12, 12), "Leroy Merlin", "chaise", new BigDecimal("90.00"));
+
+        var spec = getAuth(BASE + "?from=" + FROM + "&to=" + TO
+                + "&q=ike+chai&min=50&categoryId=" + categoryId + "&page=0&size=10");
+
+        spec.expectStatus().isOk();
+        spec.expectBody()
+                .jsonPath("$.totalItems").isEqualTo(1)
+                .jsonPath("$.items[0].note").isEqualTo("chaise bureau");
+    }
+
+    @Test
+    @DisplayName("GET /api/expenses -> q : même recherche en page et en curseur, q sans mot -> vide, sort du front ignoré")
+    void expenses_shouldMatchTextTheSameWay_inBothPaginationModes() {
+        seedExpense(LocalDate.of(2025, 12, 10), "Ikea", "chaise bureau", new BigDecimal("80.00"));
+        seedExpense(LocalDate.of(2025, 12, 11), "Leroy Merlin", "tabouret", new BigDecimal("20.00"));
+
+        // préfixe de mot : "chai" trouve "chaise", "aise" (milieu de mot) ne trouve rien
+        getAuth(BASE + "?from=" + FROM + "&to=" + TO + "&q=chai&page=0&size=10")
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.totalItems").isEqualTo(1);
+        getAuth(BASE + "?from=" + FROM + "&to=" + TO + "&q=chai&pagination=cursor&includeTotal=true")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.totalItems").isEqualTo(1);
+        getAuth(BASE + "?from=" + FROM + "&to=" + TO + "&q=aise&pagination=cursor&includeTotal=true")
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.totalItems").isEqualTo(0);
+
+        getAuth(BASE + "?from=" + FROM + "&to=" + TO + "&q=!!!&page=0&size=10")
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.totalItems").isEqualTo(0);
+        getAuth(BASE + "?from=" + FROM + "&to=" + TO + "&q=!!!&pagination=cursor")
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.items.length()").isEqualTo(0);
+
+        // la requête du front : sort=expenseDate,desc toujours envoyé, sans effet sur le tri par pertinence
+        getAuth(BASE + "?from=" + FROM + "&to=" + TO + "&q=chai&page=0&size=10&sort=expenseDate,desc")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalItems").isEqualTo(1)
+                .jsonPath("$.items[0].note").isEqualTo("chaise bureau");
+    }
+
+    @Test
+    @DisplayName("GET /api/expenses -> nombre de requêtes SQL par page constant, quel que soit le nombre de catégories (pas de N+1)")
+    void expenses_shouldNotLoadCategoriesOneByOne() {
+        List<String> pages = List.of(
+                BASE + "?from=" + FROM + "&to=" + TO + "&page=0&size=2",
+                BASE + "?from=" + FROM + "&to=" + TO + "&q=carrefour&page=0&size=2",
+                BASE + "?from=" + FROM + "&to=" + TO + "&pagination=cursor&size=2&includeTotal=true",
+                BASE + "?from=" + FROM + "&to=" + TO + "&q=carrefour&pagination=cursor&size=2&includeTotal=true"
+        );
+
+        // 4 dépenses dans 1 catégorie...
+        for (int day = 1; day <= 4; day++) {
+            seedExpense(LocalDate.of(2025, 12, day), "Carrefour", "courses", new BigDecimal("10.00"));
+        }
+        List<Long> oneCategory = pages.stream().map(this::statementsFor).toList();
+
+        // ... puis 4 dépenses dans 4 catégories distinctes
+        expenseRepository.deleteAll();
+        for (int day = 1; day <= 4; day++) {
+            Category c = new Category();
+            c.setUser(userRepository.findById(userId).orElseThrow());
+            c.setName("Cat " + day);
+            c.setColor("#00FF00");
+            c.setIcon("x");
+            categoryRepository.save(c);
+            seedExpense(c.getId(), LocalDate.of(2025, 12, day), "Carrefour", "courses", new BigDecimal("10.00"));
+        }
+        List<Long> fourCategories = pages.stream().map(this::statementsFor).toList();
+
+        assertThat(fourCategories).isEqualTo(oneCategory);
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses -> catégorie lue depuis le cache de second niveau, le rollup natif ne le vide pas")
+    void create_shouldReadCategoryFromSecondLevelCache() {
+        String body = """
+            { "amount": 12.50, "expenseDate": "2025-12-10", "categoryId": "%s", "merchant": "Carrefour" }
+            """.formatted(categoryId);
+        postAuth(body).expectStatus().isOk();
+
+        Statistics stats = statistics();
+        stats.clear();
+        postAuth(body).expectStatus().isOk();
+
+        assertThat(stats.getQueryCacheHitCount()).as("findByIdAndUserId").isEqualTo(1);
+        assertThat(stats.getEntityStatistics(Category.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses -> utilisateur attaché par référence : select catégorie + insert + rollup, sans select users")
+    void create_shouldAttachUserWithoutSelect() {
+        // cache de second niveau vide : on compte les requêtes réellement nécessaires
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+        Statistics stats = statistics();
+        stats.clear();
+
+        postAuth("""
+            { "amount": 12.50, "expenseDate": "2025-12-10", "categoryId": "%s", "merchant": "Carrefour" }
+            """.formatted(categoryId)).expectStatus().isOk();
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(stats.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /** Statements prepared while serving one authenticated GET (JWT filter included); no Category entity loaded. */
+    private long statementsFor(String uri) {
+        Statistics stats = statistics();
+        stats.clear();
+        getAuth(uri).expectStatus().isOk()
+                .expectBody().jsonPath("$.items.length()").isEqualTo(2);
+        assertThat(stats.getEntityStatistics(Category.class.getName()).getLoadCount()).as(uri).isZero();
+        return stats.getPrepareStatementCount();
+    }
+
     @Test
     @DisplayName("GET /api/expenses -> 400 si from invalide")
     void expenses_shouldReturn400_whenFromInvalid() {
@@ -299,4 +519,261 @@ class ExpenseIntegrationTest {
                 .jsonPath("$.totalCount").isEqualTo(2)
                 .jsonPath("$.totalAmount").exists();
     }
+
+    @Test
+    @DisplayName("POST /api/expenses/batch -> insère les lignes valides et rapporte les erreurs par ligne")
+    void batch_shouldInsertValidRows_andReportInvalidOnes() {
+        String body = """
+            [
+              { "amount": 10.00, "expenseDate": "2025-12-01", "categoryId": "%s", "merchant": "A" },
+              { "amount": 0.00,  "expenseDate": "2025-12-02", "categoryId": "%s", "merchant": "B" },
+              { "amount": 5.50,  "expenseDate": "2025-12-03", "categoryId": "%s", "merchant": "C" },
+              { "amount": 7.25,  "expenseDate": "2025-12-04", "categoryId": "%s", "merchant": "D" }
+            ]
+            """.formatted(categoryId, categoryId, UUID.randomUUID(), categoryId);
+
+        var spec = client.post()
+                .uri(BASE + "/batch")
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body)
+                .exchange();
+
+        spec.expectStatus().isOk();
+        spec.expectBody()
+                .jsonPath("$.received").isEqualTo(4)
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.rejected").isEqualTo(2)
+                .jsonPath("$.errors[0].row").isEqualTo(2)
+                .jsonPath("$.errors[1].row").isEqualTo(3)
+                .jsonPath("$.errors[1].message").isEqualTo("Category not found");
+
+        assertThat(expenseRepository.count()).isEqualTo(2);
+        SpendRollup rollup = spendRollupRepository
+                .findById(new SpendRollup.Key(userId, LocalDate.of(2025, 12, 1), categoryId))
+                .orElseThrow();
+        assertThat(rollup.getTotal()).isEqualByComparingTo("17.25");
+        assertThat(rollup.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/import (text/csv) -> catégorie par nom, champs quotés, erreurs par ligne")
+    void importCsv_shouldResolveCategoryByName_andReportInvalidRows() {
+        String csv = """
+            Date,Amount,Category,Merchant,Note
+            2025-12-05,12.30,food,"Carrefour, Paris","multi
+            ligne"
+            2025-13-01,4.00,Food,Ikea,
+            2025-12-06,abc,Food,Ikea,
+            2025-12-07,3.10,Unknown,Ikea,
+            2025-12-08,8.00,%s,Ikea,
+            """.formatted(categoryId);
+
+        var spec = client.post()
+                .uri(BASE + "/import")
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(csv)
+                .exchange();
+
+        spec.expectStatus().isOk();
+        spec.expectBody()
+                .jsonPath("$.received").isEqualTo(5)
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.errors.length()").isEqualTo(3)
+                .jsonPath("$.errors[0].row").isEqualTo(3)
+                .jsonPath("$.errors[0].message").isEqualTo("date: invalid (expected yyyy-MM-dd)")
+                .jsonPath("$.errors[1].message").isEqualTo("amount: invalid number")
+                .jsonPath("$.errors[2].message").isEqualTo("Category not found: Unknown");
+
+        assertThat(expenseRepository.findAll())
+                .extracting(Expense::getMerchant)
+                .containsExactlyInAnyOrder("Carrefour, Paris", "Ikea");
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/batch -> montant hors numeric(12,2) : ligne rejetée, les autres importées")
+    void batch_shouldRejectRow_whenAmountOverflowsColumn() {
+        String body = """
+            [
+              { "amount": 12345678901.00, "expenseDate": "2025-12-01", "categoryId": "%s" },
+              { "amount": 1.234,          "expenseDate": "2025-12-02", "categoryId": "%s" },
+              { "amount": 9999999999.99,  "expenseDate": "2025-12-03", "categoryId": "%s" }
+            ]
+            """.formatted(categoryId, categoryId, categoryId);
+
+        var spec = client.post()
+                .uri(BASE + "/batch")
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body)
+                .exchange();
+
+        spec.expectStatus().isOk();
+        spec.expectBody()
+                .jsonPath("$.imported").isEqualTo(1)
+                .jsonPath("$.errors[0].row").isEqualTo(1)
+                .jsonPath("$.errors[1].row").isEqualTo(2);
+
+        assertThat(expenseRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/batch -> valeur mal typée : ligne rejetée, JSON cassé : 400 pour tout le lot")
+    void batch_shouldRejectRow_whenValueHasWrongType() {
+        String body = """
+            [
+              { "amount": "abc", "expenseDate": "2025-12-01", "categoryId": "%s" },
+              { "amount": 3.00,  "expenseDate": "2025-13-40", "categoryId": "%s" },
+              42,
+              { "amount": 4.00,  "expenseDate": "2025-12-04", "categoryId": "%s" }
+            ]
+            """.formatted(categoryId, categoryId, categoryId);
+
+        client.post()
+                .uri(BASE + "/batch")
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.received").isEqualTo(4)
+                .jsonPath("$.imported").isEqualTo(1)
+                .jsonPath("$.errors[0].row").isEqualTo(1)
+                .jsonPath("$.errors[0].message").isEqualTo("amount: invalid value")
+                .jsonPath("$.errors[1].row").isEqualTo(2)
+                .jsonPath("$.errors[1].message").isEqualTo("expenseDate: invalid value")
+                .jsonPath("$.errors[2].row").isEqualTo(3)
+                .jsonPath("$.errors[2].message").isEqualTo("Invalid row");
+
+        assertThat(expenseRepository.count()).isEqualTo(1);
+
+        client.post()
+                .uri(BASE + "/batch")
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("[ { \"amount\": 1.00, \"expenseDate\": ")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(expenseRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/batch et /import (text/csv) -> 400 au-delà de MAX_BATCH_ROWS lignes, rien n'est importé")
+    void import_shouldReturn400_whenRowCapExceeded() {
+        int rows = ExpenseImportService.MAX_BATCH_ROWS + 1;
+
+        StringBuilder json = new StringBuilder("[");
+        StringBuilder csv = new StringBuilder("date,amount,category\n");
+        for (int i = 0; i < rows; i++) {
+            json.append(i == 0 ? "" : ",").append("""
+                { "amount": 1.00, "expenseDate": "2025-12-01", "categoryId": "%s" }""".formatted(categoryId));
+            csv.append("2025-12-01,1.00,").append(categoryId).append('\n');
+        }
+        json.append(']');
+
+        client.post()
+                .uri(BASE + "/batch")
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.toString())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Batch too large (max 5000 rows)");
+
+        client.post()
+                .uri(BASE + "/import")
+                .header(HttpHeaders.AUTHORIZATION, authHeader())
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(csv.toString())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("CSV too large (max 5000 rows)");
+
+        assertThat(expenseRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("GET /api/expenses/export?format=csv -> stream CSV réimportable, du plus ancien au plus récent")
+    void export_shouldStreamCsv() {
+        seedExpense(LocalDate.of(2025, 12, 11), "Ikea", "chaise, \"bleue\"", new BigDecimal("50.00"));
+        seedExpense(LocalDate.of(2025, 12, 10), "Carrefour", null, new BigDecimal("10.00"));
+        seedExpense(LocalDate.of(2026, 1, 2), "Hors période", null, new BigDecimal("1.00"));
+
+        var spec = getAuth(BASE + "/export?from=" + FROM + "&to=" + TO + "&format=csv");
+
+        spec.expectStatus().isOk();
+        spec.expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv"));
+        spec.expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses_2025-12-01_2025-12-31.csv\"");
+
+        String body = spec.expectBody(String.class).returnResult().getResponseBody();
+        assertThat(body.split("\r\n")).satisfiesExactly(
+                header -> assertThat(header).isEqualTo("id,date,amount,currency,category,merchant,note"),
+                first -> assertThat(first).endsWith(",2025-12-10,10.00,EUR,Food,Carrefour,"),
+                second -> assertThat(second).endsWith(",2025-12-11,50.00,EUR,Food,Ikea,\"chaise, \"\"bleue\"\"\"")
+        );
+    }
+
+    @Test
+    @DisplayName("GET /api/expenses/export?format=ndjson -> une ligne JSON par dépense")
+    void export_shouldStreamNdjson() {
+        seedExpense(LocalDate.of(2025, 12, 10), "Carrefour", null, new BigDecimal("10.00"));
+        seedExpense(LocalDate.of(2025, 12, 11), "Ikea", null, new BigDecimal("50.00"));
+
+        var spec = getAuth(BASE + "/export?from=" + FROM + "&to=" + TO + "&format=ndjson");
+
+        spec.expectStatus().isOk();
+        spec.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+
+        String body = spec.expectBody(String.class).returnResult().getResponseBody();
+        assertThat(body.split("\n")).satisfiesExactly(
+                first -> assertThat(first).contains("\"merchant\":\"Carrefour\"", "\"categoryName\":\"Food\""),
+                second -> assertThat(second).contains("\"merchant\":\"Ikea\"")
+        );
+    }
+
+    @Test
+    @DisplayName("GET /api/expenses/export -> 400 si format inconnu")
+    void export_shouldReturn400_whenFormatUnknown() {
+        getAuth(BASE + "/export?from=" + FROM + "&to=" + TO + "&format=xml")
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Partitions : une dépense hors fenêtre va dans expenses_default puis migre dans sa partition une fois créée")
+    void ensurePartitions_shouldMoveRowsOutOfDefaultPartition() {
+        jdbc.execute("drop table if exists expenses_1999_03");
+        UUID expenseId = seedExpense(LocalDate.of(1999, 3, 10), "Fnac", null, new BigDecimal("12.00"));
+        assertThat(partitionOf(expenseId)).isEqualTo("expenses_default");
+
+        assertThat(expenseRepository.ensurePartitions(LocalDate.of(1999, 3, 1), LocalDate.of(1999, 3, 31))).isEqualTo(1);
+        assertThat(expenseRepository.ensurePartitions(LocalDate.of(1999, 3, 1), LocalDate.of(1999, 3, 31))).isZero();
+
+        assertThat(partitionOf(expenseId)).isEqualTo("expenses_1999_03");
+        getAuth(BASE + "?from=1999-03-01&to=1999-03-31&page=0&size=10")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalItems").isEqualTo(1)
+                .jsonPath("$.items[0].merchant").isEqualTo("Fnac");
+    }
+
+    @Test
+    @DisplayName("Partitions : la maintenance crée la partition des mois restés dans expenses_default et la vide")
+    void maintain_shouldGiveOutOfWindowMonthsTheirPartition() {
+        jdbc.execute("drop table if exists expenses_1998_07");
+        UUID expenseId = seedExpense(LocalDate.of(1998, 7, 14), "Fnac", null, new BigDecimal("12.00"));
+        assertThat(partitionOf(expenseId)).isEqualTo("expenses_default");
+
+        partitionMaintenance.maintain();
+
+        assertThat(partitionOf(expenseId)).isEqualTo("expenses_1998_07");
+        assertThat(partitionMaintenance.defaultPartitionRows()).isZero();
+        assertThat(expenseRepository.monthsInDefaultPartition()).isEmpty();
+    }
+
+    private String partitionOf(UUID expenseId) {
+        return jdbc.queryForObject("select tableoid::regclass::text from expenses where id = ?", String.class, expenseId);
+    }
 }
@@ -0,0 +1,299 @@
+package com.yassine.expensetracker.expense;
+
+import com.yassine.expensetracker.dashboard.DashboardRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan regression suite: every ExpenseRepository / DashboardRepository query is run once, the SQL
+ * Hibernate actually sends is captured and explained with EXPLAIN against a seeded
+ * dataset (200 users x 1000 expenses over 36 monthly partitions, vacuumed). The generic plan is the
+ * one a server-side prepared statement ends up with, so it is the one to guard. A seq scan on
+ * expenses / spend_rollup fails the test, date-bounded queries must prune the partitions outside
+ * their range and the aggregates must stay index-only scans on the covering idx_expenses_user_date.
+ * <p>
+ * Runs in its own PostgreSQL container, skipped when Docker is missing.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.yassine.expensetracker.expense.ExpenseQueryPlanTest$SqlCapture")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpenseQueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int USERS = 200;
+    private static final int EXPENSES_PER_USER = 1_000;
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 15);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+    private static final LocalDate MONTH_FROM = LocalDate.of(2025, 2, 1);
+    private static final LocalDate MONTH_TO = LocalDate.of(2026, 1, 1);
+    private static final LocalDate PROBE_DATE = LocalDate.of(2025, 6, 15);
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (expenses\\w*|spend_rollup)");
+
+    @Autowired JdbcTemplate jdbc;
+    @Autowired TransactionTemplate tx;
+    @Autowired ExpenseRepository expenseRepository;
+    @Autowired DashboardRepository dashboardRepository;
+
+    private UUID userId;
+    private UUID categoryId;
+
+    /** Records every statement Hibernate prepares (registered through hibernate.session_factory.statement_inspector). */
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (statements) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        jdbc.queryForObject("select ensure_expense_partitions(date '2023-01-01', date '2025-12-31')", Integer.class);
+        jdbc.update("""
+            insert into users (id, email, password_hash)
+            select gen_random_uuid(), 'plan-' || i || '@test.com', 'x' from generate_series(1, ?) i
+            """, USERS);
+        jdbc.update("""
+            insert into categories (id, user_id, name, color, icon)
+            select gen_random_uuid(), u.id, 'Cat ' || c, '#000000', 'x'
+            from users u cross join generate_series(1, 4) c
+            """);
+        jdbc.update("""
+            insert into expenses (id, user_id, category_id, amount, expense_date, merchant, note)
+            select gen_random_uuid(), u.id,
+                   (select c.id from categories c where c.user_id = u.id order by c.name limit 1 offset i % 4),
+                   round((random() * 200 + 1)::numeric, 2),
+                   date '2025-12-31' - (i * 1095 / ?),
+                   (array['Carrefour','Monoprix','Ikea','Amazon','SNCF'])[i % 5 + 1],
+                   'achat ' || i
+            from users u cross join generate_series(1, ?) i
+            """, EXPENSES_PER_USER, EXPENSES_PER_USER);
+        jdbc.update("""
+            insert into spend_rollup (user_id, month, category_id, total, count)
+            select user_id, cast(date_trunc('month', expense_date) as date), category_id, sum(amount), count(*)
+            from expenses group by 1, 2, 3
+            """);
+        // visibility map à jour, sinon le planner ne choisit pas d'index-only scan
+        jdbc.execute("vacuum analyze");
+
+        userId = jdbc.queryForObject("select id from users order by email limit 1", UUID.class);
+        categoryId = jdbc.queryForObject("select id from categories where user_id = ? limit 1", UUID.class, userId);
+    }
+
+    @Test
+    @DisplayName("list(from, to) -> index idx_expenses_user_date")
+    void list() {
+        assertPruned(capture(() -> expenseRepository.list(userId, FROM, TO)));
+    }
+
+    @Test
+    @DisplayName("search paginé (+ count) avec et sans filtre catégorie")
+    void search() {
+        PageRequest page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "expenseDate"));
+        assertPruned(capture(() -> expenseRepository.search(userId, FROM, TO, null, null, null, page)));
+        assertPruned(capture(() -> expenseRepository.search(userId, FROM, TO, categoryId, BigDecimal.ONE, null, page)));
+    }
+
+    @Test
+    @DisplayName("searchText (+ count) -> index, sur les seules partitions de la période")
+    void searchText() {
+        assertPruned(capture(() -> expenseRepository.searchText(
+                userId, FROM, TO, null, null, null, ExpenseService.toPrefixTsQuery("carrefour"), PageRequest.of(0, 20))));
+    }
+
+    @Test
+    @DisplayName("searchAfter + countSearch (keyset)")
+    void searchAfter() {
+        assertPruned(capture(() -> expenseRepository.searchAfter(
+                userId, FROM, TO, null, null, null, null, null, Limit.of(21))));
+        assertPruned(capture(() -> expenseRepository.searchAfter(
+                userId, FROM, TO, null, null, null, ExpenseService.toPrefixTsQuery("carrefour"), UUID.randomUUID(), Limit.of(21))));
+        assertPruned(capture(() -> expenseRepository.countSearch(userId, FROM, TO, null, null, null, null)));
+    }
+
+    @Test
+    @DisplayName("streamForExport -> index + partition pruning")
+    void streamForExport() {
+        assertPruned(capture(() -> tx.executeWithoutResult(s -> {
+            try (var rows = expenseRepository.streamForExport(userId, FROM, TO)) {
+                rows.forEach(r -> {});
+            }
+        })));
+    }
+
+    @Test
+    @DisplayName("ExpenseRepository.summary -> index-only scan (index couvrant)")
+    void expenseSummary() {
+        assertIndexOnly(capture(() -> expenseRepository.summary(userId, FROM, TO)));
+    }
+
+    @Test
+    @DisplayName("Dashboard summary / topCategories / monthlySpend / spendByCategory -> rollup + index-only scan")
+    void dashboardRollupQueries() {
+        assertIndexOnly(capture(() -> dashboardRepository.summary(userId, FROM, TO, MONTH_FROM, MONTH_TO)));
+        assertIndexOnly(capture(() -> dashboardRepository.topCategories(userId, FROM, TO, MONTH_FROM, MONTH_TO, PageRequest.of(0, 5))));
+        assertIndexOnly(capture(() -> dashboardRepository.monthlySpend(userId, FROM, TO, MONTH_FROM, MONTH_TO)));
+        assertIndexOnly(capture(() -> dashboardRepository.spendByCategory(userId, FROM, TO, MONTH_FROM, MONTH_TO)));
+    }
+
+    @Test
+    @DisplayName("Dashboard spendByMerchant + breakdown -> index-only scan")
+    void dashboardRawQueries() {
+        assertIndexOnly(capture(() -> dashboardRepository.spendByMerchant(userId, FROM, TO, PageRequest.of(0, 10))));
+        assertIndexOnly(capture(() -> dashboardRepository.breakdown(userId, FROM, TO, MONTH_FROM, MONTH_TO, 10)));
+    }
+
+    private List<String> capture(Runnable call) {
+        synchronized (SqlCapture.statements) {
+            SqlCapture.statements.clear();
+        }
+        call.run();
+        synchronized (SqlCapture.statements) {
+            assertThat(SqlCapture.statements).as("captured SQL").isNotEmpty();
+            return List.copyOf(SqlCapture.statements);
+        }
+    }
+
+    /** No seq scan on expenses (any partition holding rows) nor spend_rollup. */
+    private void assertIndexed(List<String> statements) {
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Matcher seqScan = SEQ_SCAN.matcher(plan);
+            while (seqScan.find()) {
+                String relation = seqScan.group(1);
+                // partitions vides (mois futurs...) : le seq scan ne coûte rien
+                Long rows = jdbc.queryForObject("select reltuples::bigint from pg_class where relname = ?", Long.class, relation);
+                assertThat(rows)
+                        .as("seq scan on %s in plan of%n%s%n%s", relation, sql, plan)
+                        .isLessThanOrEqualTo(0);
+            }
+        }
+    }
+
+    private void assertIndexOnly(List<String> statements) {
+        assertPruned(statements);
+        for (String sql : statements) {
+            // index de partition hérité de idx_expenses_user_date : expenses_2025_06_user_id_expense_date_..._idx
+            assertThat(explain(sql))
+                    .as("plan of%n%s", sql)
+                    .containsPattern("Index Only Scan using expenses_\\d{4}_\\d{2}_user_id_expense_date\\w* on expenses_\\d{4}_\\d{2}");
+        }
+    }
+
+    /** Date-bounded: only the partition of PROBE_DATE is left once the executor has pruned the others. */
+    private void assertPruned(List<String> statements) {
+        assertIndexed(statements);
+        for (String sql : statements) {
+            assertThat(explain(sql))
+                    .as("plan of%n%s", sql)
+                    .contains("Subplans Removed")
+                    .doesNotContain("on expenses_default");
+        }
+    }
+
+    /**
+     * Generic plan of a captured statement: PREPARE, then EXPLAIN EXECUTE under force_generic_plan.
+     * A parameter only used as "$n is null" (Hibernate's rendering of ":x is null") has no
+     * inferable type, any type does for planning: text. Bind values only drive the partition
+     * pruning done at executor start: every date is PROBE_DATE (one month), every uuid the seeded
+     * user, integers a page size, anything else null.
+     */
+    private String explain(String sql) {
+        String numbered = toNumberedParams(sql);
+        int params = (int) sql.chars().filter(c -> c == '?').count();
+        List<String> types = new ArrayList<>();
+        for (int i = 1; i <= params; i++) {
+            types.add(numbered.contains("$" + i + " is null") ? "text" : "unknown");
+        }
+        String prepare = "prepare plan_probe" + (params == 0 ? "" : "(" + String.join(", ", types) + ")") + " as " + numbered;
+
+        return jdbc.execute((ConnectionCallback<String>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("set plan_cache_mode = force_generic_plan");
+                st.execute(prepare);
+                try {
+                    List<String> args = new ArrayList<>();
+                    try (ResultSet rs = st.executeQuery(
+                            "select unnest(parameter_types)::text from pg_prepared_statements where name = 'plan_probe'")) {
+                        while (rs.next()) args.add(argument(rs.getString(1)));
+                    }
+                    String execute = "explain execute plan_probe" + (args.isEmpty() ? "" : "(" + String.join(", ", args) + ")");
+
+                    List<String> lines = new ArrayList<>();
+                    try (ResultSet rs = st.executeQuery(execute)) {
+                        while (rs.next()) lines.add(rs.getString(1));
+                    }
+                    return String.join("\n", lines);
+                } finally {
+                    st.execute("deallocate plan_probe");
+                    st.execute("reset plan_cache_mode");
+                }
+            }
+        });
+    }
+
+    private String argument(String type) {
+        return switch (type) {
+            case "uuid" -> "'" + userId + "'";
+            case "date" -> "'" + PROBE_DATE + "'";
+            case "integer", "bigint" -> "20";
+            default -> "null";
+        };
+    }
+
+    // JDBC "?" -> "$1, $2..." (hors littéraux)
+    private static String toNumberedParams(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length() + 16);
+        boolean literal = false;
+        int n = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') literal = !literal;
+            if (c == '?' && !literal) {
+                sb.append('$').append(++n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -2,7 +2,10 @@ package com.yassine.expensetracker.expense;
 
 import com.yassine.expensetracker.category.Category;
 import com.yassine.expensetracker.category.CategoryRepository;
+import com.yassine.expensetracker.common.CursorPageResponse;
 import com.yassine.expensetracker.common.PageResponse;
+import com.yassine.expensetracker.common.SpendDataChangedEvent;
+import com.yassine.expensetracker.dashboard.SpendRollupRepository;
 import com.yassine.expensetracker.expense.ExpenseDtos.*;
 import com.yassine.expensetracker.user.User;
 import com.yassine.expensetracker.user.UserRepository;
@@ -10,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
@@ -26,6 +30,8 @@ class ExpenseServiceTest {
     @Mock ExpenseRepository expenseRepository;
     @Mock CategoryRepository categoryRepository;
     @Mock UserRepository userRepository;
+    @Mock SpendRollupRepository spendRollupRepository;
+    @Mock ApplicationEventPublisher events;
 
     @InjectMocks ExpenseService expenseService;
 
@@ -57,8 +63,12 @@ class ExpenseServiceTest {
         return e;
     }
 
+    private static ExpenseResponse row(UUID id, Category cat, BigDecimal amount, LocalDate date) {
+        return new ExpenseResponse(id, amount, "EUR", date, "Carrefour", "note", cat.getId(), cat.getName());
+    }
+
     @Test
-    void list_shouldFetchBetweenDates_andMapToResponses() {
+    void list_shouldReturnProjectedRowsBetweenDates() {
         UUID userId = UUID.randomUUID();
         User u = user(userId, "it@test.com");
 
@@ -67,25 +77,17 @@ class ExpenseServiceTest {
 
         Category cat = category(UUID.randomUUID(), u, "Food");
 
-        Expense e1 = expense(UUID.randomUUID(), u, cat, new BigDecimal("10.50"), LocalDate.of(2025, 12, 10));
-        Expense e2 = expense(UUID.randomUUID(), u, cat, new BigDecimal("5.00"), LocalDate.of(2025, 12, 5));
+        ExpenseResponse r1 = row(UUID.randomUUID(), cat, new BigDecimal("10.50"), LocalDate.of(2025, 12, 10));
+        ExpenseResponse r2 = row(UUID.randomUUID(), cat, new BigDecimal("5.00"), LocalDate.of(2025, 12, 5));
 
-        when(expenseRepository.findByUserIdAndExpenseDateBetweenOrderByExpenseDateDesc(userId, from, to))
-                .thenReturn(List.of(e1, e2));
+        when(expenseRepository.list(userId, from, to)).thenReturn(List.of(r1, r2));
 
         List<ExpenseResponse> res = expenseService.list(userId, from, to);
 
-        assertThat(res).hasSize(2);
-        ExpenseResponse r1 = res.getFirst();
+        assertThat(res).containsExactly(r1, r2);
+        assertThat(res.getFirst().categoryName()).isEqualTo("Food");
 
-        assertThat(r1.id()).isEqualTo(e1.getId());
-        assertThat(r1.amount()).isEqualByComparingTo("10.50");
-        assertThat(r1.currency()).isEqualTo("EUR");
-        assertThat(r1.expenseDate()).isEqualTo(LocalDate.of(2025, 12, 10));
-        assertThat(r1.categoryId()).isEqualTo(cat.getId());
-        assertThat(r1.categoryName()).isEqualTo("Food");
-
-        verify(expenseRepository).findByUserIdAndExpenseDateBetweenOrderByExpenseDateDesc(userId, from, to);
+        verify(expenseRepository).list(userId, from, to);
         verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository);
     }
 
@@ -112,33 +114,6 @@ class ExpenseServiceTest {
         verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository);
     }
 
-    @Test
-    void create_shouldThrow_whenUserNotFound() {
-        UUID userId = UUID.randomUUID();
-        User u = user(userId, "it@test.com");
-        UUID categoryId = UUID.randomUUID();
-        Category cat = category(categoryId, u, "Food");
-
-        CreateExpenseRequest req = new CreateExpenseRequest(
-                new BigDecimal("12.34"),
-                LocalDate.of(2025, 12, 20),
-                categoryId,
-                "Shop",
-                "Note"
-        );
-
-        when(categoryRepository.findByIdAndUserId(categoryId, userId)).thenReturn(Optional.of(cat));
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> expenseService.create(userId, req))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("Authenticated user not found");
-
-        verify(categoryRepository).findByIdAndUserId(categoryId, userId);
-        verify(userRepository).findById(userId);
-        verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository);
-    }
-
     @Test
     void create_shouldSaveExpense_andReturnMappedResponse() {
         UUID userId = UUID.randomUUID();
@@ -156,7 +131,7 @@ class ExpenseServiceTest {
         );
 
         when(categoryRepository.findByIdAndUserId(categoryId, userId)).thenReturn(Optional.of(cat));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(u));
+        when(userRepository.getReferenceById(userId)).thenReturn(u);
 
         ArgumentCaptor<Expense> captor = ArgumentCaptor.forClass(Expense.class);
 
@@ -186,42 +161,66 @@ class ExpenseServiceTest {
         assertThat(res.categoryName()).isEqualTo("Food");
 
         verify(categoryRepository).findByIdAndUserId(categoryId, userId);
-        verify(userRepository).findById(userId);
-        verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository);
+        verify(userRepository).getReferenceById(userId);
+        verify(spendRollupRepository).add(userId, LocalDate.of(2025, 12, 1), categoryId, new BigDecimal("12.34"), 1);
+        verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository, spendRollupRepository);
+    }
+
+    /** Row as returned by updateOwned: the request values, plus the replaced ones. */
+    private static ExpenseRepository.UpdatedView updated(UUID id, UpdateExpenseRequest req,
+                                                         LocalDate oldDate, UUID oldCategoryId, BigDecimal oldAmount) {
+        return new ExpenseRepository.UpdatedView() {
+            public UUID getId() { return id; }
+            public BigDecimal getAmount() { return req.amount(); }
+            public String getCurrency() { return "EUR"; }
+            public LocalDate getExpenseDate() { return req.expenseDate(); }
+            public String getMerchant() { return req.merchant(); }
+            public String getNote() { return req.note(); }
+            public LocalDate getOldExpenseDate() { return oldDate; }
+            public UUID getOldCategoryId() { return oldCategoryId; }
+            public BigDecimal getOldAmount() { return oldAmount; }
+        };
+    }
+
+    private static ExpenseRepository.DeletedView deleted(LocalDate date, UUID categoryId, BigDecimal amount) {
+        return new ExpenseRepository.DeletedView() {
+            public LocalDate getExpenseDate() { return date; }
+            public UUID getCategoryId() { return categoryId; }
+            public BigDecimal getAmount() { return amount; }
+        };
     }
 
     @Test
     void update_shouldThrow_whenExpenseNotFoundOrNotOwned() {
         UUID userId = UUID.randomUUID();
         UUID expenseId = UUID.randomUUID();
+        Category cat = category(UUID.randomUUID(), user(userId, "it@test.com"), "Food");
 
         UpdateExpenseRequest req = new UpdateExpenseRequest(
                 new BigDecimal("9.99"),
                 LocalDate.of(2025, 12, 2),
-                UUID.randomUUID(),
+                cat.getId(),
                 "Shop",
                 "Note"
         );
 
-        when(expenseRepository.findById(expenseId)).thenReturn(Optional.empty());
+        when(categoryRepository.findByIdAndUserId(cat.getId(), userId)).thenReturn(Optional.of(cat));
+        when(expenseRepository.updateOwned(expenseId, userId, cat.getId(), req.amount(), req.expenseDate(), "Shop", "Note"))
+                .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> expenseService.update(userId, expenseId, req))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Expense not found");
 
-        verify(expenseRepository).findById(expenseId);
-        verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository);
+        verify(expenseRepository).updateOwned(expenseId, userId, cat.getId(), req.amount(), req.expenseDate(), "Shop", "Note");
+        verifyNoMoreInteractions(expenseRepository, userRepository);
+        verifyNoInteractions(spendRollupRepository, events);
     }
 
     @Test
     void update_shouldThrow_whenCategoryNotFoundForUser() {
         UUID userId = UUID.randomUUID();
-        User u = user(userId, "it@test.com");
-
         UUID expenseId = UUID.randomUUID();
-        Category oldCat = category(UUID.randomUUID(), u, "Old");
-        Expense existing = expense(expenseId, u, oldCat, new BigDecimal("1.00"), LocalDate.of(2025, 12, 1));
-
         UUID newCategoryId = UUID.randomUUID();
 
         UpdateExpenseRequest req = new UpdateExpenseRequest(
@@ -232,31 +231,24 @@ class ExpenseServiceTest {
                 "Note"
         );
 
-        when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(existing));
         when(categoryRepository.findByIdAndUserId(newCategoryId, userId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> expenseService.update(userId, expenseId, req))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Category not found");
 
-        verify(expenseRepository).findById(expenseId);
         verify(categoryRepository).findByIdAndUserId(newCategoryId, userId);
-        verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository);
-    }
-
-    @Test
-    void update_shouldThrow_whenCategoryNotFoundForUser2() {
-
+        verifyNoMoreInteractions(categoryRepository);
+        verifyNoInteractions(expenseRepository, userRepository, spendRollupRepository);
     }
 
     @Test
-    void update_shouldMutateEntity_andReturnMappedResponse() {
+    void update_shouldWriteOwnedRow_andReturnMappedResponse() {
         UUID userId = UUID.randomUUID();
         User u = user(userId, "it@test.com");
 
         UUID expenseId = UUID.randomUUID();
-        Category oldCat = category(UUID.randomUUID(), u, "Old");
-        Expense existing = expense(expenseId, u, oldCat, new BigDecimal("1.00"), LocalDate.of(2025, 12, 1));
+        UUID oldCategoryId = UUID.randomUUID();
 
         UUID newCategoryId = UUID.randomUUID();
         Category newCat = category(newCategoryId, u, "Food");
@@ -269,27 +261,54 @@ class ExpenseServiceTest {
                 "New Note"
         );
 
-        when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(existing));
         when(categoryRepository.findByIdAndUserId(newCategoryId, userId)).thenReturn(Optional.of(newCat));
+        when(expenseRepository.updateOwned(expenseId, userId, newCategoryId, req.amount(), req.expenseDate(), "New Shop", "New Note"))
+                .thenReturn(Optional.of(updated(expenseId, req, LocalDate.of(2025, 12, 1), oldCategoryId, new BigDecimal("1.00"))));
 
         ExpenseResponse res = expenseService.update(userId, expenseId, req);
 
-        assertThat(existing.getCategory()).isEqualTo(newCat);
-        assertThat(existing.getAmount()).isEqualByComparingTo("9.99");
-        assertThat(existing.getExpenseDate()).isEqualTo(LocalDate.of(2025, 12, 2));
-        assertThat(existing.getMerchant()).isEqualTo("New Shop");
-        assertThat(existing.getNote()).isEqualTo("New Note");
-        assertThat(existing.getCurrency()).isEqualTo("EUR"); // inchangé
-
         assertThat(res.id()).isEqualTo(expenseId);
         assertThat(res.categoryId()).isEqualTo(newCategoryId);
         assertThat(res.categoryName()).isEqualTo("Food");
         assertThat(res.amount()).isEqualByComparingTo("9.99");
         assertThat(res.currency()).isEqualTo("EUR");
+        assertThat(res.expenseDate()).isEqualTo(LocalDate.of(2025, 12, 2));
+        assertThat(res.merchant()).isEqualTo("New Shop");
+        assertThat(res.note()).isEqualTo("New Note");
 
-        verify(expenseRepository).findById(expenseId);
         verify(categoryRepository).findByIdAndUserId(newCategoryId, userId);
-        verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository);
+        verify(expenseRepository).updateOwned(expenseId, userId, newCategoryId, req.amount(), req.expenseDate(), "New Shop", "New Note");
+        verify(spendRollupRepository).add(userId, LocalDate.of(2025, 12, 1), oldCategoryId, new BigDecimal("-1.00"), -1);
+        verify(spendRollupRepository).add(userId, LocalDate.of(2025, 12, 1), newCategoryId, new BigDecimal("9.99"), 1);
+        verify(events).publishEvent(new SpendDataChangedEvent(userId));
+        verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository, spendRollupRepository);
+    }
+
+    @Test
+    void update_shouldApplyAmountDeltaToRollup_whenMonthAndCategoryUnchanged() {
+        UUID userId = UUID.randomUUID();
+        User u = user(userId, "it@test.com");
+
+        UUID expenseId = UUID.randomUUID();
+        UUID categoryId = UUID.randomUUID();
+        Category cat = category(categoryId, u, "Food");
+
+        UpdateExpenseRequest req = new UpdateExpenseRequest(
+                new BigDecimal("12.50"),
+                LocalDate.of(2025, 12, 20),
+                categoryId,
+                "Shop",
+                "Note"
+        );
+
+        when(categoryRepository.findByIdAndUserId(categoryId, userId)).thenReturn(Optional.of(cat));
+        when(expenseRepository.updateOwned(expenseId, userId, categoryId, req.amount(), req.expenseDate(), "Shop", "Note"))
+                .thenReturn(Optional.of(updated(expenseId, req, LocalDate.of(2025, 12, 1), categoryId, new BigDecimal("10.00"))));
+
+        expenseService.update(userId, expenseId, req);
+
+        verify(spendRollupRepository).add(userId, LocalDate.of(2025, 12, 1), categoryId, new BigDecimal("2.50"), 0);
+        verifyNoMoreInteractions(spendRollupRepository);
     }
 
     @Test
@@ -297,36 +316,36 @@ class ExpenseServiceTest {
         UUID userId = UUID.randomUUID();
         UUID expenseId = UUID.randomUUID();
 
-        when(expenseRepository.findById(expenseId)).thenReturn(Optional.empty());
+        when(expenseRepository.deleteOwned(expenseId, userId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> expenseService.delete(userId, expenseId))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Expense not found");
 
-        verify(expenseRepository).findById(expenseId);
+        verify(expenseRepository).deleteOwned(expenseId, userId);
         verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository);
+        verifyNoInteractions(spendRollupRepository, events);
     }
 
     @Test
     void delete_shouldDelete_whenOwnedByUser() {
         UUID userId = UUID.randomUUID();
-        User u = user(userId, "it@test.com");
-
         UUID expenseId = UUID.randomUUID();
-        Category cat = category(UUID.randomUUID(), u, "Food");
-        Expense existing = expense(expenseId, u, cat, new BigDecimal("1.00"), LocalDate.of(2025, 12, 1));
+        UUID categoryId = UUID.randomUUID();
 
-        when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(existing));
+        when(expenseRepository.deleteOwned(expenseId, userId))
+                .thenReturn(Optional.of(deleted(LocalDate.of(2025, 12, 1), categoryId, new BigDecimal("1.00"))));
 
         expenseService.delete(userId, expenseId);
 
-        verify(expenseRepository).findById(expenseId);
-        verify(expenseRepository).delete(existing);
-        verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository);
+        verify(expenseRepository).deleteOwned(expenseId, userId);
+        verify(spendRollupRepository).add(userId, LocalDate.of(2025, 12, 1), categoryId, new BigDecimal("-1.00"), -1);
+        verify(events).publishEvent(new SpendDataChangedEvent(userId));
+        verifyNoMoreInteractions(expenseRepository, categoryRepository, userRepository, spendRollupRepository);
     }
 
     @Test
-    void search_shouldBuildLikePattern_whenQProvided_andMapPageResponse() {
+    void search_shouldUsePrefixTsQuery_whenQProvided_andMapPageResponse() {
         UUID userId = UUID.randomUUID();
         User u = user(userId, "it@test.com");
 
@@ -336,35 +355,28 @@ class ExpenseServiceTest {
         UUID catId = UUID.randomUUID();
         Category cat = category(catId, u, "Food");
 
-        Expense e = expense(UUID.randomUUID(), u, cat, new BigDecimal("12.00"), LocalDate.of(2025, 5, 10));
-
-        Pageable pageable = PageRequest.of(1, 10);
-        Page<Expense> page = new PageImpl<>(List.of(e), pageable, 21);
+        ExpenseResponse e = row(UUID.randomUUID(), cat, new BigDecimal("12.00"), LocalDate.of(2025, 5, 10));
 
-        ArgumentCaptor<String> qCaptor = ArgumentCaptor.forClass(String.class);
+        // relevance order: the requested sort is dropped on the full-text path
+        Pageable pageable = PageRequest.of(1, 10, Sort.by("amount"));
+        Pageable unsorted = PageRequest.of(1, 10);
+        Page<ExpenseResponse> page = new PageImpl<>(List.of(e), unsorted, 21);
 
-        when(expenseRepository.search(
+        when(expenseRepository.searchText(
                 eq(userId), eq(from), eq(to), eq(catId),
                 isNull(), isNull(),
-                anyString(),
-                eq(pageable)
+                eq("carre:* & four:*"),
+                eq(unsorted)
         )).thenReturn(page);
 
         PageResponse<ExpenseResponse> res = expenseService.search(
                 userId, from, to, catId,
                 null, null,
-                "  CaRRe  ",
+                "  CaRRe, four!  ",
                 pageable
         );
 
-        verify(expenseRepository).search(
-                eq(userId), eq(from), eq(to), eq(catId),
-                isNull(), isNull(),
-                qCaptor.capture(),
-                eq(pageable)
-        );
-
-        assertThat(qCaptor.getValue()).isEqualTo("%carre%");
+        verify(expenseRepository, never()).search(any(), any(), any(), any(), any(), any(), any());
 
         assertThat(res.page()).isEqualTo(1);
         assertThat(res.size()).isEqualTo(10);
@@ -376,37 +388,131 @@ class ExpenseServiceTest {
     }
 
     @Test
-    void search_shouldPassNullPattern_whenQBlank() {
+    void search_shouldSkipFullText_whenQBlank() {
         UUID userId = UUID.randomUUID();
         LocalDate from = LocalDate.of(2025, 1, 1);
         LocalDate to = LocalDate.of(2025, 12, 31);
 
-        Pageable pageable = PageRequest.of(0, 20);
-        Page<Expense> emptyPage = new PageImpl<>(List.of(), pageable, 0);
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("amount"));
+        Page<ExpenseResponse> emptyPage = new PageImpl<>(List.of(), pageable, 0);
 
         when(expenseRepository.search(
                 eq(userId), eq(from), eq(to),
                 isNull(), isNull(), isNull(),
-                isNull(),
                 eq(pageable)
         )).thenReturn(emptyPage);
 
-        PageResponse<ExpenseResponse> res = expenseService.search(
-                userId, from, to,
-                null, null, null,
-                "   ",
-                pageable
-        );
+        PageResponse<ExpenseResponse> blank = expenseService.search(userId, from, to, null, null, null, "   ", pageable);
+
+        verify(expenseRepository, never()).searchText(any(), any(), any(), any(), any(), any(), any(), any());
+        assertThat(blank.items()).isEmpty();
+    }
+
+    @Test
+    void search_shouldReturnEmptyPage_whenQHasNoWords() {
+        UUID userId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+
+        PageResponse<ExpenseResponse> symbols = expenseService.search(
+                userId, from, to, null, null, null, "%&|!", PageRequest.of(2, 20));
+        CursorPageResponse<ExpenseResponse> euro = expenseService.searchAfter(
+                userId, from, to, null, null, null, "€", null, 20, true);
+
+        // pas de filtre ignoré : sans mot cherchable, rien ne correspond
+        verifyNoInteractions(expenseRepository);
+        assertThat(symbols.items()).isEmpty();
+        assertThat(symbols.page()).isEqualTo(2);
+        assertThat(symbols.totalItems()).isZero();
+        assertThat(euro.items()).isEmpty();
+        assertThat(euro.nextCursor()).isNull();
+        assertThat(euro.totalItems()).isZero();
+    }
+
+    @Test
+    void toPrefixTsQuery_shouldKeepOnlyWords_andCapTerms() {
+        assertThat(ExpenseService.toPrefixTsQuery("Café  L'Étoile")).isEqualTo("café:* & l:* & étoile:*");
+        assertThat(ExpenseService.toPrefixTsQuery("a:* | b & !c")).isEqualTo("a:* & b:* & c:*");
+        assertThat(ExpenseService.toPrefixTsQuery("1 2 3 4 5 6 7 8 9 10")).isEqualTo("1:* & 2:* & 3:* & 4:* & 5:* & 6:* & 7:* & 8:*");
+        assertThat(ExpenseService.toPrefixTsQuery(null)).isNull();
+    }
+
+    @Test
+    void searchAfter_shouldReturnNextCursor_whenMoreRowsThanSize_andSkipCount() {
+        UUID userId = UUID.randomUUID();
+        User u = user(userId, "it@test.com");
+        Category cat = category(UUID.randomUUID(), u, "Food");
+
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+
+        ExpenseResponse e1 = row(UUID.randomUUID(), cat, new BigDecimal("1.00"), LocalDate.of(2025, 12, 10));
+        ExpenseResponse e2 = row(UUID.randomUUID(), cat, new BigDecimal("2.00"), LocalDate.of(2025, 12, 9));
+        ExpenseResponse e3 = row(UUID.randomUUID(), cat, new BigDecimal("3.00"), LocalDate.of(2025, 12, 8));
 
-        verify(expenseRepository).search(
+        when(expenseRepository.searchAfter(
                 eq(userId), eq(from), eq(to),
-                isNull(), isNull(), isNull(),
+                isNull(), isNull(), isNull(), isNull(),
                 isNull(),
-                eq(pageable)
+                eq(Limit.of(3))
+        )).thenReturn(List.of(e1, e2, e3));
+
+        CursorPageResponse<ExpenseResponse> res = expenseService.searchAfter(
+                userId, from, to, null, null, null, null,
+                null, 2, false
+        );
+
+        assertThat(res.items()).extracting(ExpenseResponse::id).containsExactly(e1.id(), e2.id());
+        assertThat(res.size()).isEqualTo(2);
+        assertThat(res.totalItems()).isNull();
+        assertThat(ExpenseCursor.decode(res.nextCursor()))
+                .isEqualTo(new ExpenseCursor(e2.expenseDate(), e2.id()));
+
+        verify(expenseRepository, never()).countSearch(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchAfter_shouldSeekFromCursor_andCount_whenTotalRequested() {
+        UUID userId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+
+        UUID lastId = UUID.randomUUID();
+        LocalDate lastDate = LocalDate.of(2025, 6, 15);
+        String cursor = new ExpenseCursor(lastDate, lastId).encode();
+
+        when(expenseRepository.searchAfter(
+                eq(userId), eq(from), eq(lastDate),
+                isNull(), isNull(), isNull(), eq("shop:*"),
+                eq(lastId),
+                eq(Limit.of(11))
+        )).thenReturn(List.of());
+        when(expenseRepository.countSearch(userId, from, to, null, null, null, "shop:*")).thenReturn(42L);
+
+        CursorPageResponse<ExpenseResponse> res = expenseService.searchAfter(
+                userId, from, to, null, null, null, " Shop ",
+                cursor, 10, true
         );
 
         assertThat(res.items()).isEmpty();
-        assertThat(res.totalItems()).isZero();
+        assertThat(res.nextCursor()).isNull();
+        assertThat(res.totalItems()).isEqualTo(42L);
+    }
+
+    @Test
+    void searchAfter_shouldThrow_whenCursorInvalid() {
+        UUID userId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+
+        assertThatThrownBy(() -> expenseService.searchAfter(
+                userId, from, to, null, null, null, null,
+                "not-a-cursor", 10, false
+        ))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+
+        verifyNoInteractions(expenseRepository, categoryRepository, userRepository);
     }
 
     @Test
@@ -0,0 +1,127 @@
+package com.yassine.expensetracker.health;
+
+import com.yassine.expensetracker.security.jwt.JwtService;
+import com.yassine.expensetracker.user.User;
+import com.yassine.expensetracker.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureRestTestClient
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired RestTestClient client;
+    @Autowired UserRepository userRepository;
+    @Autowired JwtService jwtService;
+
+    // /actuator/* n'est servi que sur le port de management (management.server.port)
+    @LocalManagementPort int managementPort;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+
+        User u = new User();
+        u.setEmail("metrics@test.com");
+        u.setPasswordHash("does-not-matter-here");
+        userRepository.save(u);
+
+        token = jwtService.generateToken(u.getId(), u.getEmail(), 3600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    private String management(String path) {
+        return "http://localhost:" + managementPort + path;
+    }
+
+    private String scrape() {
+        return client.get()
+                .uri(management("/actuator/prometheus"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    @DisplayName("GET /actuator/prometheus (port de management) -> 200 sans token : timers repositories / filtre JWT, pool Hikari, Hibernate")
+    void prometheus_shouldExposeTimersPoolAndHibernateStatistics() {
+        client.get()
+                .uri("/api/expenses?from=2025-12-01&to=2025-12-31&page=0&size=10")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+        client.get()
+                .uri("/api/dashboard")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+        client.get()
+                .uri("/api/expenses")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not.a.jwt")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        String body = scrape();
+
+        assertThat(body)
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .containsPattern("spring_data_repository_invocations_seconds_count\\{[^}]*repository=\"ExpenseRepository\"")
+                .containsPattern("spring_data_repository_invocations_seconds_count\\{[^}]*repository=\"DashboardRepository\"")
+                .containsPattern("app_jwt_filter_seconds_count\\{[^}]*outcome=\"authenticated\"[^}]*} [1-9]")
+                .containsPattern("app_jwt_filter_seconds_count\\{[^}]*outcome=\"rejected\"[^}]*} [1-9]")
+                .contains("hikaricp_connections_active{")
+                .contains("hikaricp_connections_pending{")
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("hibernate_sessions_open_total{")
+                .contains("hibernate_second_level_cache_requests_total{")
+                .contains("app_rate_limit_requests_total{")
+                .contains("app_password_hash_queued{")
+                .contains("app_dashboard_cache_requests_total{");
+    }
+
+    @Test
+    @DisplayName("port de management : /actuator/health UP sans token, /actuator/metrics -> 401")
+    void actuator_shouldExposeHealthAndScrapeOnly_toAnonymousCallers() {
+        client.get().uri(management("/actuator/health")).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("UP");
+
+        client.get().uri(management("/actuator/metrics")).exchange()
+                .expectStatus().isUnauthorized();
+        client.get().uri(management("/actuator/metrics"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("port public : /actuator/prometheus n'est pas servi (401 sans token, 404 avec)")
+    void prometheus_shouldNotBeServed_onThePublicPort() {
+        client.get().uri("/actuator/prometheus").exchange()
+                .expectStatus().isUnauthorized();
+        client.get().uri("/actuator/prometheus")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,114 @@
+package com.yassine.expensetracker.mail;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    @Mock EmailOutboxRepository repository;
+    @Mock EmailSender sender;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        // batch-size 2, max-attempts 3, backoff 30s, lease 300s
+        dispatcher = new EmailOutboxDispatcher(repository, sender, transactionManager, 2, 3, 30, 300);
+    }
+
+    private static EmailOutboxMessage message(String to) {
+        return new EmailOutboxMessage(to, "Reset your password", "<p>hi</p>");
+    }
+
+    @Test
+    void dispatch_shouldSendClaimedMessages_andMarkThemSent() {
+        EmailOutboxMessage m = message("a@test.com");
+        when(repository.lockDue(any(), eq(2))).thenReturn(List.of(m));
+        when(repository.findById(any())).thenReturn(Optional.of(m));
+
+        dispatcher.dispatch();
+
+        verify(sender).send("a@test.com", "Reset your password", "<p>hi</p>");
+        assertThat(m.getStatus()).isEqualTo(EmailOutboxMessage.Status.SENT);
+        assertThat(m.getAttempts()).isEqualTo(1);
+        assertThat(m.getSentAt()).isNotNull();
+        assertThat(m.getHtmlBody()).isNull();
+    }
+
+    @Test
+    void dispatch_shouldKeepPolling_whileBatchesAreFull() {
+        when(repository.lockDue(any(), eq(2)))
+                .thenReturn(List.of(message("a@test.com"), message("b@test.com")))
+                .thenReturn(List.of(message("c@test.com")));
+
+        dispatcher.dispatch();
+
+        verify(repository, times(2)).lockDue(any(), eq(2));
+        verify(sender, times(3)).send(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void dispatch_shouldScheduleRetryWithBackoff_whenSendFails() {
+        EmailOutboxMessage m = message("a@test.com");
+        when(repository.lockDue(any(), eq(2))).thenReturn(List.of(m));
+        when(repository.findById(any())).thenReturn(Optional.of(m));
+        doThrow(new IllegalStateException("Failed to send email")).when(sender).send(anyString(), anyString(), anyString());
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+
+        assertThat(m.getStatus()).isEqualTo(EmailOutboxMessage.Status.PENDING);
+        assertThat(m.getHtmlBody()).isEqualTo("<p>hi</p>");
+        assertThat(m.getLastError()).contains("Failed to send email");
+        assertThat(m.getNextAttemptAt()).isBetween(before.plusSeconds(30), Instant.now().plusSeconds(30));
+    }
+
+    @Test
+    void markFailed_shouldGiveUp_atMaxAttempts() {
+        EmailOutboxMessage m = message("a@test.com");
+        Instant now = Instant.now();
+
+        for (int i = 0; i < 3; i++) {
+            m.claim(now, Duration.ofMinutes(5));
+            m.markFailed("boom", now, Duration.ofSeconds(30), 3);
+        }
+
+        assertThat(m.getAttempts()).isEqualTo(3);
+        assertThat(m.getStatus()).isEqualTo(EmailOutboxMessage.Status.FAILED);
+        assertThat(m.getHtmlBody()).isNull();
+    }
+
+    @Test
+    void backoffFor_shouldDoubleEachAttempt_andCapAtOneHour() {
+        assertThat(dispatcher.backoffFor(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoffFor(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(dispatcher.backoffFor(4)).isEqualTo(Duration.ofSeconds(240));
+        assertThat(dispatcher.backoffFor(30)).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void dispatch_shouldDoNothing_whenOutboxEmpty() {
+        when(repository.lockDue(any(), eq(2))).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        verifyNoInteractions(sender);
+        verify(repository, never()).findById(any(UUID.class));
+    }
+}
@@ -0,0 +1,79 @@
+package com.yassine.expensetracker.mail;
+
+import com.yassine.expensetracker.user.User;
+import com.yassine.expensetracker.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailOutboxPurgeIntegrationTest {
+
+    @Autowired EmailOutboxRepository outboxRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private void outboxMessage(String status, Duration age) {
+        jdbc.update("""
+                insert into email_outbox (id, recipient, subject, html_body, status, created_at)
+                values (?, 'purge@test.com', 'Reset your password', null, ?, ?)
+                """,
+                UUID.randomUUID(), status, Timestamp.from(Instant.now().minus(age)));
+    }
+
+    @Test
+    @DisplayName("purge -> supprime par lots les mails SENT / FAILED au-delà de la rétention, garde les PENDING et le cache L2")
+    void purge_shouldDeleteFinishedMessagesPastRetention() {
+        for (int i = 0; i < 3; i++) outboxMessage("SENT", Duration.ofDays(10));
+        outboxMessage("FAILED", Duration.ofDays(10));
+        outboxMessage("PENDING", Duration.ofDays(10));                               // jamais supprimé
+        outboxMessage("SENT", Duration.ofHours(1));
+
+        User u = new User();
+        u.setEmail("purge@test.com");
+        u.setPasswordHash("does-not-matter-here");
+        UUID userId = userRepository.save(u).getId();
+        userRepository.findById(userId).orElseThrow();
+        assertThat(entityManagerFactory.getCache().contains(User.class, userId)).isTrue();
+
+        // lots de 2 : plusieurs allers-retours
+        EmailOutboxPurge purge = new EmailOutboxPurge(outboxRepository, 168, 2);
+
+        assertThat(purge.purge()).isEqualTo(4);
+        assertThat(outboxRepository.findAll())
+                .extracting(EmailOutboxMessage::getStatus)
+                .containsExactlyInAnyOrder(EmailOutboxMessage.Status.PENDING, EmailOutboxMessage.Status.SENT);
+        // delete natif déclaré sur email_outbox seule : le cache de second niveau reste en place
+        assertThat(entityManagerFactory.getCache().contains(User.class, userId)).isTrue();
+
+        assertThat(purge.purge()).isZero();
+        assertThat(purge.purged()).isEqualTo(4);
+    }
+}
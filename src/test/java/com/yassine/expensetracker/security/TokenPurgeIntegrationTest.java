@@ -0,0 +1,109 @@
+package com.yassine.expensetracker.security;
+
+import com.yassine.expensetracker.security.refresh.RefreshTokenRepository;
+import com.yassine.expensetracker.security.reset.PasswordResetTokenRepository;
+import com.yassine.expensetracker.user.User;
+import com.yassine.expensetracker.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenPurgeIntegrationTest {
+
+    @Autowired UserRepository userRepository;
+    @Autowired RefreshTokenRepository refreshTokenRepository;
+    @Autowired PasswordResetTokenRepository resetTokenRepository;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+
+        User u = new User();
+        u.setEmail("purge@test.com");
+        u.setPasswordHash("does-not-matter-here");
+        userId = userRepository.save(u).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    private void refreshToken(Duration expiresIn, Duration revokedAgo) {
+        Instant now = Instant.now();
+        jdbc.update("""
+                insert into refresh_tokens (id, token_hash, user_id, expires_at, revoked_at, created_at)
+                values (?, ?, ?, ?, ?, ?)
+                """,
+                UUID.randomUUID(), UUID.randomUUID().toString(), userId,
+                Timestamp.from(now.plus(expiresIn)),
+                revokedAgo == null ? null : Timestamp.from(now.minus(revokedAgo)),
+                Timestamp.from(now.minus(Duration.ofDays(3))));
+    }
+
+    private void resetToken(Duration expiresIn) {
+        jdbc.update("""
+                insert into password_reset_tokens (id, user_id, token_hash, expires_at)
+                values (?, ?, ?, ?)
+                """,
+                UUID.randomUUID(), userId, UUID.randomUUID().toString(),
+                Timestamp.from(Instant.now().plus(expiresIn)));
+    }
+
+    @Test
+    @DisplayName("purge -> supprime par lots les tokens expirés / révoqués au-delà de la rétention, garde les autres et le cache L2")
+    void purge_shouldDeleteInBatches_onlyTokensPastRetention() {
+        for (int i = 0; i < 5; i++) refreshToken(Duration.ofDays(-2), null);        // expirés depuis 2 j
+        for (int i = 0; i < 3; i++) refreshToken(Duration.ofDays(1), Duration.ofDays(2)); // révoqués depuis 2 j
+        refreshToken(Duration.ofHours(-1), null);                                     // expiré récemment
+        refreshToken(Duration.ofDays(1), Duration.ofHours(1));                        // révoqué récemment
+        refreshToken(Duration.ofDays(1), null);
+        refreshToken(Duration.ofDays(30), null);
+
+        resetToken(Duration.ofDays(-2));
+        resetToken(Duration.ofDays(-3));
+        resetToken(Duration.ofMinutes(30));
+
+        userRepository.findById(userId).orElseThrow();
+        assertThat(entityManagerFactory.getCache().contains(User.class, userId)).isTrue();
+
+        // lots de 2 : plusieurs allers-retours par table
+        TokenPurge purge = new TokenPurge(refreshTokenRepository, resetTokenRepository, 24, 2);
+
+        TokenPurge.Run run = purge.purge();
+
+        assertThat(run.refreshTokens()).isEqualTo(8);
+        assertThat(run.resetTokens()).isEqualTo(2);
+        assertThat(purge.lastRun()).isEqualTo(run);
+        assertThat(refreshTokenRepository.count()).isEqualTo(4);
+        assertThat(resetTokenRepository.count()).isEqualTo(1);
+        // deletes natifs déclarés sur leur seule table : le cache de second niveau reste en place
+        assertThat(entityManagerFactory.getCache().contains(User.class, userId)).isTrue();
+
+        TokenPurge.Run second = purge.purge();
+
+        assertThat(second.refreshTokens()).isZero();
+        assertThat(second.resetTokens()).isZero();
+        assertThat(purge.refreshTokensPurged()).isEqualTo(8);
+        assertThat(purge.resetTokensPurged()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,32 @@
+package com.yassine.expensetracker.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessTokenDenylistTest {
+
+    private final AccessTokenDenylist denylist = new AccessTokenDenylist(100);
+
+    @Test
+    void isRevoked_shouldBeFalse_whenUserNeverRevoked() {
+        assertThat(denylist.isRevoked(UUID.randomUUID(), Instant.now())).isFalse();
+    }
+
+    @Test
+    void revokeAll_shouldRejectTokensIssuedBefore_andKeepNewOnes() {
+        UUID userId = UUID.randomUUID();
+        Instant before = Instant.now().minusSeconds(60);
+
+        denylist.revokeAll(userId);
+
+        assertThat(denylist.isRevoked(userId, before)).isTrue();
+        assertThat(denylist.isRevoked(userId, null)).isTrue();
+        assertThat(denylist.isRevoked(userId, Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1))).isFalse();
+        assertThat(denylist.isRevoked(UUID.randomUUID(), before)).isFalse();
+    }
+}
@@ -0,0 +1,35 @@
+package com.yassine.expensetracker.security.password;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashCalibrationTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void bcryptCost_shouldPickHighestCostUnderTarget() {
+        // 4 ms au coût 8 -> 128 ms au coût 13, 256 ms au coût 14
+        assertThat(PasswordHashCalibration.bcryptCost(250, cost -> 4 * MS)).isEqualTo(13);
+        assertThat(PasswordHashCalibration.bcryptCost(260, cost -> 4 * MS)).isEqualTo(14);
+    }
+
+    @Test
+    void bcryptCost_shouldStayWithinBounds() {
+        // machine lente : jamais sous le coût par défaut
+        assertThat(PasswordHashCalibration.bcryptCost(250, cost -> 100 * MS))
+                .isEqualTo(PasswordHashCalibration.BCRYPT_MIN_COST);
+        assertThat(PasswordHashCalibration.bcryptCost(250, cost -> 1000))
+                .isEqualTo(PasswordHashCalibration.BCRYPT_MAX_COST);
+    }
+
+    @Test
+    void argon2Iterations_shouldScaleLinearly_withinBounds() {
+        assertThat(PasswordHashCalibration.argon2Iterations(250, iterations -> 40 * MS)).isEqualTo(6);
+        assertThat(PasswordHashCalibration.argon2Iterations(250, iterations -> 200 * MS))
+                .isEqualTo(PasswordHashCalibration.ARGON2_MIN_ITERATIONS);
+        assertThat(PasswordHashCalibration.argon2Iterations(250, iterations -> 1000))
+                .isEqualTo(PasswordHashCalibration.ARGON2_MAX_ITERATIONS);
+    }
+}
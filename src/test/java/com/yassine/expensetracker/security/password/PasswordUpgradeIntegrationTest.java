@@ -0,0 +1,84 @@
+package com.yassine.expensetracker.security.password;
+
+import com.yassine.expensetracker.user.User;
+import com.yassine.expensetracker.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureRestTestClient
+@ActiveProfiles("test")
+class PasswordUpgradeIntegrationTest {
+
+    @Autowired RestTestClient client;
+
+    @Autowired UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    private RestTestClient.ResponseSpec login(String password) {
+        return client.post()
+                .uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\": \"upgrade@test.com\", \"password\": \"" + password + "\", \"rememberMe\": false}")
+                .exchange();
+    }
+
+    private String storedHash() {
+        return userRepository.findByEmail("upgrade@test.com").orElseThrow().getPasswordHash();
+    }
+
+    @Test
+    @DisplayName("POST /login -> un hash bcrypt d'avant (sans préfixe) est réécrit dans l'algorithme configuré")
+    void login_shouldRehashLegacyHash_onSuccessOnly() {
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+        User u = new User();
+        u.setEmail("upgrade@test.com");
+        u.setPasswordHash(legacy);
+        userRepository.save(u);
+
+        login("wrong-password").expectStatus().isUnauthorized();
+        assertThat(storedHash()).isEqualTo(legacy);
+
+        login("password123").expectStatus().isOk();
+        String upgraded = storedHash();
+        assertThat(upgraded).startsWith("{bcrypt}$2a$04$").isNotEqualTo("{bcrypt}" + legacy);
+
+        // déjà au bon format : plus réécrit
+        login("password123").expectStatus().isOk();
+        assertThat(storedHash()).isEqualTo(upgraded);
+    }
+
+    @Test
+    @DisplayName("POST /register -> hash stocké avec le préfixe de l'algorithme")
+    void register_shouldStorePrefixedHash() {
+        client.post()
+                .uri("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\": \"upgrade@test.com\", \"password\": \"password123\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(storedHash()).startsWith("{bcrypt}$2a$04$");
+        login("password123").expectStatus().isOk();
+    }
+}
@@ -0,0 +1,67 @@
+package com.yassine.expensetracker.security.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// seau IP large : seul celui de l'email doit refuser
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "app.rate-limit.email.capacity=2",
+                "app.rate-limit.email.refill-per-minute=1"
+        }
+)
+@AutoConfigureRestTestClient
+@ActiveProfiles("test")
+class RateLimitBodyIntegrationTest {
+
+    @Autowired RestTestClient client;
+
+    @LocalServerPort int port;
+
+    @Test
+    @DisplayName("POST /login -> 413 quand le body dépasse 4 Ko (JSON rembourré d'espaces)")
+    void login_shouldReturn413_whenBodyIsPaddedPastTheCap() {
+        client.post()
+                .uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\": \"pad@test.com\", \"password\": \"x\", \"rememberMe\": false" + " ".repeat(5000) + "}")
+                .exchange()
+                .expectStatus().isEqualTo(413);
+    }
+
+    @Test
+    @DisplayName("POST /forgot-password en chunked (sans Content-Length) -> compté dans le seau de l'email")
+    void forgotPassword_shouldLimitByEmail_whenBodyIsChunked() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        byte[] json = "{\"email\": \"chunked@test.com\"}".getBytes(StandardCharsets.UTF_8);
+
+        int[] statuses = new int[3];
+        for (int i = 0; i < statuses.length; i++) {
+            // flux de longueur inconnue : envoyé en Transfer-Encoding: chunked
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/forgot-password"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(json)))
+                    .build();
+            statuses[i] = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        assertThat(statuses).containsExactly(200, 200, 429);
+    }
+}
@@ -0,0 +1,64 @@
+package com.yassine.expensetracker.security.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "app.rate-limit.ip.capacity=4",
+                "app.rate-limit.ip.refill-per-minute=1",
+                "app.rate-limit.email.capacity=2",
+                "app.rate-limit.email.refill-per-minute=1"
+        }
+)
+@AutoConfigureRestTestClient
+@ActiveProfiles("test")
+class RateLimitIntegrationTest {
+
+    @Autowired RestTestClient client;
+
+    @Autowired RateLimitFilter rateLimitFilter;
+
+    private RestTestClient.ResponseSpec forgot(String email) {
+        return client.post()
+                .uri("/api/auth/forgot-password")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\": \"" + email + "\"}")
+                .exchange();
+    }
+
+    @Test
+    @DisplayName("POST /forgot-password -> 429 + Retry-After au-delà du seau de l'email, puis de celui de l'IP")
+    void forgotPassword_shouldBeLimitedByEmail_thenByIp() {
+        forgot("nobody@test.com").expectStatus().isOk();
+        // même email une fois normalisé
+        forgot("NoBody@Test.com").expectStatus().isOk();
+
+        forgot("nobody@test.com")
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "60")
+                .expectBody().jsonPath("$.message").isEqualTo("Too many attempts, retry later");
+
+        // autre email : passe, jusqu'à épuiser le seau de l'IP (4)
+        forgot("other@test.com").expectStatus().isOk();
+        forgot("third@test.com").expectStatus().isEqualTo(429);
+
+        assertThat(rateLimitFilter.limiters())
+                .extracting(RateLimiter::name, RateLimiter::allowed, RateLimiter::rejected, RateLimiter::trackedKeys)
+                .containsExactly(
+                        tuple("ip", 4L, 1L, 1L),
+                        tuple("email", 3L, 1L, 2L)
+                );
+    }
+}
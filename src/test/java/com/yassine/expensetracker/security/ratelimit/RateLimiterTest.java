@@ -0,0 +1,91 @@
+package com.yassine.expensetracker.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // rafale de 3, puis 1 par 10 s
+    private final RateLimiter limiter = new RateLimiter("test", 3, 6, 1000);
+
+    @Test
+    void tryAcquire_shouldAllowBurst_thenRejectWithWaitUntilNextToken() {
+        long now = 1_000 * SECOND;
+
+        assertThat(limiter.tryAcquire("k", now)).isZero();
+        assertThat(limiter.tryAcquire("k", now)).isZero();
+        assertThat(limiter.tryAcquire("k", now)).isZero();
+        assertThat(limiter.tryAcquire("k", now)).isEqualTo(10 * SECOND);
+        assertThat(limiter.tryAcquire("k", now + 4 * SECOND)).isEqualTo(6 * SECOND);
+
+        // un jeton revient toutes les 10 s
+        assertThat(limiter.tryAcquire("k", now + 10 * SECOND)).isZero();
+        assertThat(limiter.tryAcquire("k", now + 10 * SECOND)).isPositive();
+
+        // les autres clés ont leur propre seau
+        assertThat(limiter.tryAcquire("other", now)).isZero();
+
+        assertThat(limiter.allowed()).isEqualTo(5);
+        assertThat(limiter.rejected()).isEqualTo(3);
+    }
+
+    @Test
+    void evictIdle_shouldDropOnlyFullBuckets() {
+        long now = 1_000 * SECOND;
+        limiter.tryAcquire("idle", now);
+        limiter.tryAcquire("busy", now);
+        limiter.tryAcquire("busy", now);
+        limiter.tryAcquire("busy", now);
+
+        // "idle" est de nouveau plein après 10 s, "busy" après 30 s
+        assertThat(limiter.evictIdle(now + 10 * SECOND)).isEqualTo(1);
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+
+        // toujours limité : le seau n'a pas été oublié
+        assertThat(limiter.tryAcquire("busy", now + 10 * SECOND)).isZero();
+        assertThat(limiter.tryAcquire("busy", now + 10 * SECOND)).isPositive();
+
+        assertThat(limiter.evictIdle(now + 60 * SECOND)).isEqualTo(1);
+        assertThat(limiter.trackedKeys()).isZero();
+    }
+
+    @Test
+    void tryAcquire_shouldNeverTrackMoreThanMaxKeys_underAFloodOfNewKeys() {
+        RateLimiter small = new RateLimiter("small", 1, 60, 100);
+        long now = 1_000 * SECOND;
+
+        // aucun seau n'est de nouveau plein : un balayage ne libérerait rien
+        for (int i = 0; i < 10_000; i++) {
+            small.tryAcquire("random-" + i + "@test.com", now);
+        }
+
+        assertThat(small.trackedKeys()).isLessThanOrEqualTo(100);
+        assertThat(small.allowed()).isEqualTo(10_000);
+    }
+
+    @Test
+    void tryAcquire_shouldKeepLimitingAHotKey_whileRandomKeysFloodTheMap() {
+        RateLimiter small = new RateLimiter("small", 1, 1, 100);
+        long now = 1_000 * SECOND;
+
+        assertThat(small.tryAcquire("victim@test.com", now)).isZero();
+        for (int i = 0; i < 5_000; i++) {
+            small.tryAcquire("random-" + i + "@test.com", now);
+            if (i % 10 == 0) {
+                assertThat(small.tryAcquire("victim@test.com", now)).isPositive();
+            }
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveSettings() {
+        assertThatThrownBy(() -> new RateLimiter("bad", 0, 10, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
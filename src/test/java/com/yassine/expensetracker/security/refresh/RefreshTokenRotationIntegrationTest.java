@@ -0,0 +1,191 @@
+package com.yassine.expensetracker.security.refresh;
+
+import com.yassine.expensetracker.security.auth.dto.AuthResponse;
+import com.yassine.expensetracker.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.EntityExchangeResult;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureRestTestClient
+@ActiveProfiles("test")
+class RefreshTokenRotationIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 5;
+
+    @Autowired RestTestClient client;
+
+    @Autowired UserRepository userRepository;
+    @Autowired RefreshTokenRepository refreshTokenRepository;
+
+    private String cookie;
+    private String accessToken;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+
+        EntityExchangeResult<AuthResponse> registered = client.post()
+                .uri("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\": \"refresh@test.com\", \"password\": \"password123\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(AuthResponse.class);
+        cookie = refreshCookie(registered);
+        accessToken = registered.getResponseBody().accessToken();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // refresh_tokens suit par "on delete cascade"
+        userRepository.deleteAll();
+    }
+
+    private EntityExchangeResult<String> refresh(String rawToken) {
+        return client.post()
+                .uri("/api/auth/refresh")
+                .cookie("refresh_token", rawToken)
+                .exchange()
+                .returnResult(String.class);
+    }
+
+    private static String refreshCookie(EntityExchangeResult<?> result) {
+        ResponseCookie c = result.getResponseCookies().getFirst("refresh_token");
+        assertThat(c).as("Set-Cookie refresh_token").isNotNull();
+        return c.getValue();
+    }
+
+    @Test
+    @DisplayName("POST /refresh -> rotation : l'ancien cookie est refusé (401), le nouveau fonctionne")
+    void refresh_shouldRotate_andRejectReuseOfOldCookie() {
+        EntityExchangeResult<String> first = refresh(cookie);
+        assertThat(first.getStatus().value()).isEqualTo(200);
+        String rotated = refreshCookie(first);
+        assertThat(rotated).isNotEqualTo(cookie);
+
+        EntityExchangeResult<String> reused = refresh(cookie);
+        assertThat(reused.getStatus().value()).isEqualTo(401);
+        assertThat(reused.getResponseBody()).contains("Refresh token revoked");
+
+        assertThat(refresh("not-a-token").getStatus().value()).isEqualTo(401);
+        assertThat(refresh(rotated).getStatus().value()).isEqualTo(200);
+
+        assertThat(refreshTokenRepository.findAll())
+                .hasSize(3)
+                .filteredOn(rt -> !rt.isRevoked())
+                .hasSize(1);
+    }
+
+    @Test
+    @DisplayName("POST /logout-all -> refresh tokens et access tokens émis avant refusés une fois la transaction validée")
+    void logoutAll_shouldRevokeRefreshAndAccessTokens() throws Exception {
+        // iat est à la seconde : un token émis dans la seconde de la révocation reste valide
+        Thread.sleep(1100);
+
+        client.post().uri("/api/auth/logout-all")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().is2xxSuccessful();
+
+        client.get().uri("/api/categories")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isUnauthorized();
+        assertThat(refresh(cookie).getStatus().value()).isEqualTo(401);
+    }
+
+    @Test
+    @DisplayName("POST /change-password -> mauvais mot de passe 400 ; sinon sessions d'avant refusées, nouveau mot de passe accepté")
+    void changePassword_shouldRevokeSessions_andSwapPassword() throws Exception {
+        changePassword("wrong-password", "newPassword123").expectStatus().isBadRequest();
+
+        Thread.sleep(1100);
+        changePassword("password123", "newPassword123").expectStatus().isNoContent();
+
+        client.get().uri("/api/categories")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isUnauthorized();
+        assertThat(refresh(cookie).getStatus().value()).isEqualTo(401);
+        login("password123").expectStatus().isUnauthorized();
+        login("newPassword123").expectStatus().isOk();
+    }
+
+    private RestTestClient.ResponseSpec changePassword(String current, String next) {
+        return client.post().uri("/api/auth/change-password")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"currentPassword\": \"" + current + "\", \"newPassword\": \"" + next + "\"}")
+                .exchange();
+    }
+
+    private RestTestClient.ResponseSpec login(String password) {
+        return client.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\": \"refresh@test.com\", \"password\": \"" + password + "\", \"rememberMe\": false}")
+                .exchange();
+    }
+
+    @Test
+    @DisplayName("POST /refresh -> même cookie envoyé en parallèle : une seule rotation réussit, les autres 401")
+    void refresh_shouldRotateOnce_whenSameCookieSentConcurrently() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String current = cookie;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<EntityExchangeResult<String>>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        return refresh(current);
+                    }));
+                }
+                start.countDown();
+
+                List<EntityExchangeResult<String>> ok = new ArrayList<>();
+                int rejected = 0;
+                for (Future<EntityExchangeResult<String>> f : futures) {
+                    EntityExchangeResult<String> result = f.get(30, TimeUnit.SECONDS);
+                    if (result.getStatus().value() == 200) ok.add(result);
+                    else if (result.getStatus().value() == 401) rejected++;
+                }
+
+                assertThat(ok).as("round %d", round).hasSize(1);
+                assertThat(rejected).as("round %d", round).isEqualTo(THREADS - 1);
+                cookie = refreshCookie(ok.getFirst());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // le token d'inscription + une rotation par tour, un seul encore actif
+        assertThat(refreshTokenRepository.findAll())
+                .hasSize(ROUNDS + 1)
+                .filteredOn(rt -> !rt.isRevoked())
+                .hasSize(1);
+        assertThat(refresh(cookie).getStatus().value()).isEqualTo(200);
+    }
+}
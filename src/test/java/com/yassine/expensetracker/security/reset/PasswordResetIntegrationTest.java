@@ -0,0 +1,133 @@
+package com.yassine.expensetracker.security.reset;
+
+import com.yassine.expensetracker.mail.EmailOutboxDispatcher;
+import com.yassine.expensetracker.mail.EmailOutboxMessage;
+import com.yassine.expensetracker.mail.EmailOutboxRepository;
+import com.yassine.expensetracker.mail.InMemoryEmailSender;
+import com.yassine.expensetracker.user.User;
+import com.yassine.expensetracker.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureRestTestClient
+@ActiveProfiles("test")
+class PasswordResetIntegrationTest {
+
+    @Autowired RestTestClient client;
+
+    @Autowired UserRepository userRepository;
+    @Autowired EmailOutboxRepository outboxRepository;
+    @Autowired EmailOutboxDispatcher dispatcher;
+    @Autowired InMemoryEmailSender sender;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        userRepository.deleteAll();
+        sender.clear();
+
+        User u = new User();
+        u.setEmail("reset@test.com");
+        u.setPasswordHash("does-not-matter-here");
+        userRepository.save(u);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private RestTestClient.ResponseSpec forgot(String email) {
+        return client.post()
+                .uri("/api/auth/forgot-password")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\": \"" + email + "\"}")
+                .exchange();
+    }
+
+    @Test
+    @DisplayName("POST /forgot-password -> répond sans envoyer, le dispatcher envoie ensuite depuis l'outbox")
+    void forgotPassword_shouldQueueEmail_thenDispatcherSendsIt() {
+        forgot("Reset@Test.com").expectStatus().isOk();
+
+        assertThat(sender.sent()).isEmpty();
+        assertThat(outboxRepository.findAll())
+                .singleElement()
+                .satisfies(m -> assertThat(m.getStatus()).isEqualTo(EmailOutboxMessage.Status.PENDING));
+
+        dispatcher.dispatch();
+
+        assertThat(sender.sent())
+                .singleElement()
+                .satisfies(mail -> {
+                    assertThat(mail.to()).isEqualTo("reset@test.com");
+                    assertThat(mail.htmlBody()).contains("/reset-password?token=");
+                });
+        assertThat(outboxRepository.findAll())
+                .singleElement()
+                .satisfies(m -> {
+                    assertThat(m.getStatus()).isEqualTo(EmailOutboxMessage.Status.SENT);
+                    assertThat(m.getAttempts()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    @DisplayName("POST /forgot-password -> email inconnu : 200 et rien dans l'outbox")
+    void forgotPassword_shouldQueueNothing_whenEmailUnknown() {
+        forgot("nobody@test.com").expectStatus().isOk();
+
+        dispatcher.dispatch();
+
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(sender.sent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("POST /reset-password -> le lien du mail change le mot de passe une seule fois")
+    void resetPassword_shouldChangePassword_thenRejectSameToken() {
+        forgot("reset@test.com").expectStatus().isOk();
+        dispatcher.dispatch();
+
+        String html = sender.sent().getFirst().htmlBody();
+        Matcher m = Pattern.compile("token=([A-Za-z0-9_-]+)").matcher(html);
+        assertThat(m.find()).isTrue();
+        String token = m.group(1);
+
+        reset(token, "brandNewPassword1").expectStatus().isOk();
+        login("brandNewPassword1").expectStatus().isOk();
+
+        reset(token, "anotherPassword2").expectStatus().isBadRequest();
+        login("anotherPassword2").expectStatus().isUnauthorized();
+    }
+
+    private RestTestClient.ResponseSpec reset(String token, String newPassword) {
+        return client.post()
+                .uri("/api/auth/reset-password")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"token\": \"" + token + "\", \"newPassword\": \"" + newPassword + "\"}")
+                .exchange();
+    }
+
+    private RestTestClient.ResponseSpec login(String password) {
+        return client.post()
+                .uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\": \"reset@test.com\", \"password\": \"" + password + "\", \"rememberMe\": false}")
+                .exchange();
+    }
+}